@@ -0,0 +1,135 @@
+package core;
+
+import tileengine.TETile;
+import tileengine.TilePalette;
+import utils.MoveJournal;
+import utils.SnapshotUtils;
+
+/**
+ * The `AutograderBuddy` class plays the game from a string of keys instead of a window, for
+ * autograders, fuzzing and regression tests of the save and load paths.
+ *
+ * The keys are the ones typed in the real game: {@code N}, the digits of a seed and {@code S}
+ * start a new game, {@code L} loads the saved game, {@code W}, {@code A}, {@code S} and
+ * {@code D} move the character and {@code :Q} saves and stops reading. For example
+ * {@code "N123SWWDD:Q"} followed by {@code "LSS"} plays one game across two calls. The game
+ * runs through the same {@link Simulation}, worlds, save store and move journal as the
+ * windowed game, and loads with the same {@link SnapshotUtils#loadLatest()}, but
+ * never draws or plays a sound, and its timer never advances, so a script cannot run out of
+ * time. Saves are not forced to disk, see {@link SnapshotUtils#setDurable(boolean)}.
+ */
+public class AutograderBuddy {
+    private static final Theme[] THEMES = Theme.defaultThemes();
+    private static final WorldCache WORLDS = new WorldCache(SessionManager.WORLD_CACHE_BYTES);
+    private static MoveJournal journal;
+
+    static {
+        // Scripts save far more often than a player, and a crash only loses a test run
+        SnapshotUtils.setDurable(false);
+    }
+
+    /**
+     * Plays the game from an input string and returns the world as it is at the end.
+     *
+     * @param input The keys to play, case insensitive. Keys that mean nothing where they
+     *              appear are ignored, like in the game.
+     * @return The tiles of the world, or null if the input never started or loaded a game.
+     */
+    public static TETile[][] getWorldFromInput(String input) {
+        Simulation simulation = null;
+        long seed = 0;
+        boolean readingSeed = false;
+        long newSeed = 0;
+        int digits = 0;
+        int i = 0;
+        while (i < input.length()) {
+            char key = java.lang.Character.toLowerCase(input.charAt(i++));
+            if (readingSeed) {
+                // The same as the seed menu: only digits count, and S starts once there is one
+                if (java.lang.Character.isDigit(key)) {
+                    int digit = key - '0';
+                    // A digit that would overflow the seed is dropped
+                    if (newSeed <= (Long.MAX_VALUE - digit) / 10) {
+                        newSeed = newSeed * 10 + digit;
+                        digits++;
+                    }
+                } else if (key == 's' && digits > 0) {
+                    readingSeed = false;
+                    seed = newSeed;
+                    simulation = new Simulation(WORLDS.newWorld(seed, Theme.forSeed(THEMES, seed)),
+                            SessionManager.DEFAULT_TIMER, null);
+                }
+            } else if (key == 'n') {
+                readingSeed = true;
+                newSeed = 0;
+                digits = 0;
+            } else if (key == 'l') {
+                Snapshot snapshot = SnapshotUtils.loadLatest();
+                if (snapshot != null) {
+                    long savedSeed = snapshot.getSeed();
+                    World world = WORLDS.newWorld(savedSeed, Theme.forSeed(THEMES, savedSeed));
+                    // A save that does not fit its world is ignored, like a missing one
+                    if (world.restore(snapshot)) {
+                        seed = savedSeed;
+                        simulation = new Simulation(world, snapshot.getTimeLeft(), null);
+                    }
+                }
+            } else if (key == ':' && i < input.length()
+                    && java.lang.Character.toLowerCase(input.charAt(i)) == 'q') {
+                if (simulation != null) {
+                    Snapshot snapshot = SnapshotUtils.capture(seed, simulation.getCharacter(),
+                            simulation.getRemainingSeconds());
+                    SnapshotUtils.save(snapshot);
+                    // Like quitting the windowed game, leave the journal at the saved state,
+                    // so it cannot hold an older game that loading would prefer
+                    journal().checkpoint(snapshot);
+                }
+                break;
+            } else if (simulation != null) {
+                simulation.input(key);
+            }
+        }
+        return simulation == null ? null : simulation.getWorld().getTiles();
+    }
+
+    private static synchronized MoveJournal journal() {
+        if (journal == null) {
+            journal = new MoveJournal();
+        }
+        return journal;
+    }
+
+    /**
+     * Checks whether a tile is one the character can stand on: floor, a coin or the character.
+     *
+     * @param t The tile to check.
+     * @return True if the tile is ground.
+     */
+    public static boolean isGroundTile(TETile t) {
+        for (Theme theme : THEMES) {
+            if (t == theme.getCharacter() || t == theme.getCharacter2()) {
+                return true;
+            }
+            int index = theme.getPalette().indexOf(t);
+            if (index >= 0 && (theme.getPalette().flags(index) & TilePalette.WALKABLE) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a tile is a wall around the rooms and hallways.
+     *
+     * @param t The tile to check.
+     * @return True if the tile is a wall.
+     */
+    public static boolean isBoundaryTile(TETile t) {
+        for (Theme theme : THEMES) {
+            if (t == theme.getWall()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,8 +1,11 @@
 package core;
 
+import tileengine.OverlayTileGrid;
 import tileengine.TETile;
+import tileengine.TileGrid;
 import java.util.ArrayList;
-import java.util.PriorityQueue;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * The Board class represents the game board, which consists of tiles,
@@ -12,9 +15,11 @@ import java.util.PriorityQueue;
  * @since Apr 15 2025
  */
 public class Board {
-    private TETile[][] board;
-    private PriorityQueue<Room> rooms;
+    private TileGrid board;
+    private ArrayList<Room> rooms;
+    private List<Room> roomsView;
     private TETile background;
+    private OccupancyMap occupancy;
 
     /**
      * Constructs a new Board with a specified theme.
@@ -22,43 +27,88 @@ public class Board {
      * @param theme The theme used for the game board.
      */
     public Board(Theme theme) {
-        this.board = new TETile[RoomPlot.BOARD_LENGTH][RoomPlot.BOARD_HEIGHT];
         this.background = theme.getBackground();
-        clearBoard();
-        this.rooms = new PriorityQueue<>();
+        this.board = new TileGrid(RoomPlot.BOARD_LENGTH, RoomPlot.BOARD_HEIGHT,
+                theme.getPalette(), background);
+        this.occupancy = new OccupancyMap(RoomPlot.BOARD_LENGTH, RoomPlot.BOARD_HEIGHT);
+        this.rooms = new ArrayList<>();
+        this.roomsView = Collections.unmodifiableList(rooms);
     }
 
     /**
-     * Clears the game board by setting all tiles to the background tiles.
+     * Constructs a new Board on top of the tiles of a previously generated board. The tiles
+     * are shared, not copied, and every change is kept in an overlay on top of them.
+     * The rooms are not restored, since they are only needed while generating.
+     *
+     * @param theme     The theme the tiles were generated with.
+     * @param baseTiles The palette indices saved by {@link TileGrid#toIndices()}, which must
+     *                  never change afterwards.
      */
-    private void clearBoard() {
-        for (int i = 0; i < board.length; i++) {
-            for (int j = 0; j < board[0].length; j++) {
-                board[i][j] = background;
+    public Board(Theme theme, byte[] baseTiles) {
+        this.background = theme.getBackground();
+        this.board = new OverlayTileGrid(RoomPlot.BOARD_LENGTH, RoomPlot.BOARD_HEIGHT,
+                theme.getPalette(), baseTiles);
+        this.occupancy = new OccupancyMap(RoomPlot.BOARD_LENGTH, RoomPlot.BOARD_HEIGHT);
+        this.rooms = new ArrayList<>();
+        this.roomsView = Collections.unmodifiableList(rooms);
+        for (int x = 0; x < board.width(); x++) {
+            for (int y = 0; y < board.height(); y++) {
+                this.occupancy.set(x, y, board.get(x, y) != background);
             }
         }
     }
 
     /**
-     * Adds a room to the game board.
+     * Puts every tile back the way it was when this board was made from saved tiles. Only the
+     * tiles that changed since are touched, and they are reported to the grid's dirty region.
+     *
+     * @throws IllegalStateException If the board was not made from saved tiles.
+     */
+    public void resetTiles() {
+        if (!(board instanceof OverlayTileGrid)) {
+            throw new IllegalStateException("Only a board made from saved tiles can be reset");
+        }
+        OverlayTileGrid overlay = (OverlayTileGrid) board;
+        int[] changed = overlay.changedCells();
+        overlay.reset();
+        for (int cell : changed) {
+            int x = cell % board.width();
+            int y = cell / board.width();
+            this.occupancy.set(x, y, board.get(x, y) != background);
+        }
+    }
+
+    /**
+     * Adds a room to the game board. Rooms are kept in a binary min-heap ordered by middle
+     * x-coordinate, laid out in the list exactly like the PriorityQueue this board used to hold,
+     * so the most left room comes first and rooms picked by index stay the same for a seed.
      *
      * @param r The room to be added to the board.
      */
     public void addRoom(Room r) {
+        int k = rooms.size();
         this.rooms.add(r);
+        // Sift up the same way PriorityQueue.offer does, equal rooms never pass each other
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            Room e = rooms.get(parent);
+            if (r.compareTo(e) >= 0) {
+                break;
+            }
+            this.rooms.set(k, e);
+            k = parent;
+        }
+        this.rooms.set(k, r);
     }
 
     /**
-     * Retrieves a list of rooms on the game board.
+     * Retrieves the rooms on the game board, in heap order starting from the most left room.
+     * The returned list is a read-only view, so no copy is made.
      *
-     * @return An ArrayList containing the rooms on the board.
+     * @return A read-only list containing the rooms on the board.
      */
-    public ArrayList<Room> getRooms() {
-        ArrayList<Room> list = new ArrayList<>();
-        for (Room room : this.rooms) {
-            list.add(room);
-        }
-        return list;
+    public List<Room> getRooms() {
+        return this.roomsView;
     }
 
     /**
@@ -69,15 +119,41 @@ public class Board {
      * @param tileType  The type of tile to set at the position.
      */
     public void setTiles(int x, int y, TETile tileType) {
-        this.board[x][y] = tileType;
+        this.board.set(x, y, tileType);
+        this.occupancy.set(x, y, tileType != background);
+    }
+
+    /**
+     * Checks whether any tile inside the rectangle is something other than background.
+     * Both corners are inclusive, and parts of the rectangle outside the board are ignored.
+     *
+     * @param x0 The left edge of the rectangle.
+     * @param y0 The bottom edge of the rectangle.
+     * @param x1 The right edge of the rectangle.
+     * @param y1 The top edge of the rectangle.
+     * @return True if the rectangle touches an occupied tile, false otherwise.
+     */
+    public boolean isAreaOccupied(int x0, int y0, int x1, int y1) {
+        return this.occupancy.isAreaOccupied(x0, y0, x1, y1);
+    }
+
+    /**
+     * Retrieves the tile at a specific position on the game board.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return The tile at the position.
+     */
+    public TETile getTile(int x, int y) {
+        return this.board.get(x, y);
     }
 
     /**
-     * Retrieves the 2D array of tiles representing the game board.
+     * Retrieves the palette-indexed grid of tiles representing the game board.
      *
-     * @return The 2D array of tiles.
+     * @return The grid of tiles.
      */
-    public TETile[][] getTiles() {
+    public TileGrid getGrid() {
         return this.board;
     }
 }
@@ -1,10 +1,9 @@
 package core;
 
 import tileengine.TETile;
-import tileengine.Tileset;
-import utils.Audio;
+import tileengine.TileGrid;
+import tileengine.TilePalette;
 
-import java.util.HashSet;
 
 
 /**
@@ -19,13 +18,17 @@ import java.util.HashSet;
   * @since Apr 15 2025
  */
 public class Character {
+    public static final int MOVED = 0;
+    public static final int BLOCKED = 1;
+    public static final int COLLECTED = 2;
     private TETile charStyle;
     private TETile charStyle2;
     private String name;
     private int myScore;
-    private HashSet<Point> collectedCoinsPos;
+    private PointSet collectedCoinsPos;
+    private boolean collectedShared;
     private Board board;
-    private TETile[][] tiles;
+    private TileGrid tiles;
     private Point location;
     private TETile walkableTile;
     private TETile obstacleTile;
@@ -48,16 +51,16 @@ public class Character {
         this.charStyle = style;
         this.charStyle2 = style2;
         this.myScore = 0;
-        this.collectedCoinsPos = new HashSet<>();
+        this.collectedCoinsPos = new PointSet();
         this.name = "Player 1";
         this.board = board;
-        this.tiles = board.getTiles();
+        this.tiles = board.getGrid();
         this.location = new Point(x, y);
         this.walkableTile = walkableTile;
         this.obstacleTile = obstacleTile;
         this.collectibleTile = collectibleTile;
 
-        if (tiles[x][y] != this.obstacleTile) {
+        if (!tiles.has(x, y, TilePalette.OBSTACLE)) {
             this.board.setTiles(x, y, style);
         } else {
             System.out.println("cannot create character on " + this.obstacleTile.description());
@@ -68,8 +71,20 @@ public class Character {
         return name;
     }
 
-    public void addCollectible(Point coin) {
-        this.collectedCoinsPos.add(coin);
+    /**
+     * Adds a collected coin. The set of collected coins is changed in place, unless it was
+     * handed out by {@link #getCollectedCoinPositions()} since the last change, in which case
+     * it is copied once so the set handed out never changes afterwards.
+     *
+     * @param x The x-coordinate of the collected coin.
+     * @param y The y-coordinate of the collected coin.
+     */
+    public void addCollectible(int x, int y) {
+        if (collectedShared) {
+            this.collectedCoinsPos = new PointSet(collectedCoinsPos);
+            this.collectedShared = false;
+        }
+        collectedCoinsPos.add(x, y);
     }
 
     public void updateMyScore(int score) {
@@ -80,8 +95,15 @@ public class Character {
         return myScore;
     }
 
-    public HashSet<Point> getCollectedCoinPositions() {
-        return collectedCoinsPos;
+    /**
+     * Gets the locations of the collected coins. The set is frozen when it is handed out, and
+     * the next coin collected goes into a copy of it.
+     *
+     * @return A frozen set that keeps its contents even when more coins are collected.
+     */
+    public PointSet getCollectedCoinPositions() {
+        this.collectedShared = true;
+        return collectedCoinsPos.freeze();
     }
 
 
@@ -97,18 +119,21 @@ public class Character {
     }
 
     /**
-     * Moves the character by the specified deltas in the x and y directions.
+     * Moves the character by the specified deltas in the x and y directions, picking up the coin
+     * on the new position if there is one. Nothing is drawn or played here; the caller reacts
+     * to the result.
      *
      * @param deltaX The change in the x-coordinate for the character's movement.
      * @param deltaY The change in the y-coordinate for the character's movement.
+     * @return {@link #MOVED}, {@link #COLLECTED} if a coin was picked up on the way,
+     *         or {@link #BLOCKED} if the character could not move.
      */
-    public void move(int deltaX, int deltaY) {
+    public int move(int deltaX, int deltaY) {
         if (!canMove(deltaX, deltaY)) {
-            Audio.playAudio("collision.wav");
-            tiles[location.x()][location.y()] = charStyle2;
-            System.out.println("Error: move error");
-            return;
+            board.setTiles(location.x(), location.y(), charStyle2);
+            return BLOCKED;
         }
+        boolean collected = tiles.has(location.x() + deltaX, location.y() + deltaY, TilePalette.COLLECTIBLE);
 
         // swap tiles to move
         // Audio.playAudio("sound.wav");
@@ -116,12 +141,13 @@ public class Character {
         int newPosX = location.x() + deltaX;
         int newPosY = location.y() + deltaY;
 
-        tiles[location.x()][location.y()] = walkableTile;
-        tiles[newPosX][newPosY] = charStyle;
+        board.setTiles(location.x(), location.y(), walkableTile);
+        board.setTiles(newPosX, newPosY, charStyle);
 
         // move current position
         location.setX(newPosX);
         location.setY(newPosY);
+        return collected ? COLLECTED : MOVED;
     }
 
     /**
@@ -147,22 +173,20 @@ public class Character {
         // check bounds
         if (newPosX >= RoomPlot.BOARD_LENGTH || newPosX < 0
             || newPosY >= RoomPlot.BOARD_HEIGHT || newPosY < 0) {
-            System.out.println("Cannot walk outside of board");
             return false;
         }
 
+        int tileFlags = tiles.flags(newPosX, newPosY);
+
         // check collectible
-        if (tiles[newPosX][newPosY] == Tileset.COIN_ICON) {
-            collectedCoinsPos.add(new Point(newPosX, newPosY));
+        if ((tileFlags & TilePalette.COLLECTIBLE) != 0) {
+            addCollectible(newPosX, newPosY);
             myScore++;
-            Audio.playAudio("coin.wav");
-            System.out.println(this.name + " current Score is: " + myScore);
             return true;
         }
 
         // check walls
-        if (tiles[newPosX][newPosY] != walkableTile) {
-            System.out.println("Cannot walk on " + tiles[newPosX][newPosY].description());
+        if ((tileFlags & TilePalette.WALKABLE) == 0) {
             return false;
         }
         return true;
@@ -1,18 +1,21 @@
 package core;
 
-import edu.princeton.cs.algs4.StdDraw;
+import tileengine.DirtyRegion;
+import tileengine.InputEvent;
 import tileengine.TERenderer;
 import tileengine.TETile;
+import tileengine.TileGrid;
+import tileengine.TilePalette;
 import tileengine.Tileset;
 import utils.Audio;
-import utils.ManipulateTiles;
+import utils.AutoSaver;
+import utils.FramePacer;
+import utils.FieldOfView;
+import utils.LightMap;
+import utils.MoveJournal;
 import utils.SnapshotUtils;
 
 import java.awt.*;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * The `Game` class represents the main game loop, allowing the player to control a character
@@ -25,26 +28,34 @@ import java.util.concurrent.TimeUnit;
  * @since Apr 15 2025
  */
 public class Game {
-    private static final double DEFAULT_TIMER = 60 ;
+    private static final int FRAMES_PER_SECOND = 60;
+    private static final int AUTOSAVE_SECONDS = 5;
+    private static final int VIEW_DISTANCE = 20;
+    private static final int TORCH_LIGHT = 5;
+    private static final int COIN_LIGHT = 2;
     private TERenderer ter;
+    private WorldCache worlds;
     private World w;
-    private TETile[][] tiles;
+    private TileGrid tiles;
+    private TETile[][] frame;
+    private DirtyRegion dirty;
+    private FieldOfView fieldOfView;
+    private LightMap lightMap;
+    private int playerLight;
+    private int[] coinLights;
     private Character character;
     private long seed;
-    private long prevFrameTimestamp;
-    private long prevTimerTime;
+    private FramePacer pacer;
+    private MoveJournal journal;
+    private AutoSaver autoSaver;
+    private int secondsSinceSave;
+    private final InputEvent event = new InputEvent();
+    private boolean needsRender;
     private char prevKey = ' ';
     private Theme theme;
     private boolean darkMode;
-    private final int FRAME_RATE = 20;
-    private int scoreToWin;
-    private double countDown;
-    private ScheduledExecutorService scheduler;
-    private CountDownLatch timerLatch;
-    private long startTime;
+    private Simulation simulation;
     private double remainingSeconds;
-    private boolean isLost;
-    private boolean isWin;
     private int lightBoxSize;
     int mouseX = 0;
     int mouseY = 0;
@@ -52,56 +63,78 @@ public class Game {
 
 
     /**
-     * Constructs a new `Game` object with the specified seed, TERenderer, and theme.
+     * The way a game ended.
+     */
+    public enum Outcome {
+        WON,
+        LOST
+    }
+
+    /**
+     * Constructs a new `Game` object that draws with the given TERenderer. The same object
+     * is used for every session, so its buffers, journal and autosave thread are reused.
+     *
+     * @param ter    The TERenderer for rendering the game world.
+     * @param worlds The cache the worlds of every session come from.
+     */
+    public Game(TERenderer ter, WorldCache worlds) {
+        this.ter = ter;
+        this.worlds = worlds;
+    }
+
+    /**
+     * Initializes a new session by creating a new world and resetting the game state.
      *
      * @param seed      The seed for generating the game world.
-     * @param ter       The TERenderer for rendering the game world.
      * @param countDown The countdown duration for the game.
      * @param theme     The theme used for character and floor tiles.
      */
-    public Game(long seed, TERenderer ter, double countDown, Theme theme) {
-        this.darkMode = false;
+    public void initialize(long seed, double countDown, Theme theme) {
+        boolean sameWorld = w != null && seed == this.seed && theme == this.theme;
         this.seed = seed;
-        this.ter = ter;
         this.theme = theme;
-        this.isLost = false;
-        this.isWin = false;
+        this.darkMode = false;
         this.lightBoxSize = 5;
-        this.countDown = countDown;
-    }
+        this.needsRender = false;
+        this.prevKey = ' ';
+        this.secondsSinceSave = 0;
 
-    /**
-     * Initializes the game by creating a new world and obtaining the initial state.
-     */
-    public void initialize() {
-        this.w = new World(seed, theme);
-        this.tiles = w.getTiles();
+        // Restarting the same world only undoes the tiles that changed in the last session
+        if (sameWorld) {
+            w.reset();
+        } else {
+            this.w = worlds.newWorld(seed, theme);
+        }
+        this.tiles = w.getGrid();
+        if (frame == null || frame.length != tiles.width() || frame[0].length != tiles.height()) {
+            this.frame = new TETile[tiles.width()][tiles.height()];
+            this.dirty = new DirtyRegion(tiles.width(), tiles.height());
+        }
+        dirty.clear();
+        tiles.setDirtyRegion(dirty);
+        if (fieldOfView == null) {
+            this.fieldOfView = new FieldOfView(tiles.width(), tiles.height());
+        }
+        fieldOfView.reset();
+        ter.invalidate();
         this.character = w.getCharacter();
-        this.scoreToWin = w.getTotalNumCoins();
-        this.scheduler = Executors.newScheduledThreadPool(1);
-        this.timerLatch = new CountDownLatch(1);
-
-        // Schedule the timer task
-        // @Source - ChatGpt
-        scheduler.schedule(() -> {
-            System.out.println("Timer run out");
-            this.isLost = true;
-            timerLatch.countDown();
-        }, (long) countDown, TimeUnit.SECONDS);
-
-        this.startTime = System.currentTimeMillis();
+        lightWorld();
+        this.simulation = new Simulation(w, countDown, new Events());
+        this.remainingSeconds = countDown;
     }
 
     /**
-     * Modifies the character's location on the world tiles and updates the display.
+     * Puts the new session in the state of a saved game and lights the world again to match.
      *
-     * @param x The new x-coordinate of the character.
-     * @param y The new y-coordinate of the character.
+     * @param snapshot The saved game, of the seed the session was initialized with.
+     * @return True if the save was restored, false if it does not match the world.
      */
-    public void modifyCharacterLocation(int x, int y) {
-        w.getTiles()[character.getLocation().x()][character.getLocation().y()] = theme.getFloor();
-        w.getTiles()[x][y] = theme.getCharacter();
-        this.character.setLocation(x, y);
+    public boolean restore(Snapshot snapshot) {
+        if (!w.restore(snapshot)) {
+            return false;
+        }
+        lightWorld();
+        return true;
     }
 
 
@@ -110,220 +143,275 @@ public class Game {
     }
 
 
-    public void hideCollectibleTile(int x, int y) {
-        w.getTiles()[x][y] = theme.getFloor();
+    /**
+     * Places the light sources of a new session: the character's own light, a torch in every
+     * room and a faint glow on every coin.
+     */
+    private void lightWorld() {
+        if (lightMap == null) {
+            this.lightMap = new LightMap(tiles.width(), tiles.height());
+            this.coinLights = new int[tiles.width() * tiles.height()];
+        }
+        lightMap.reset(tiles, dirty);
+        Point location = character.getLocation();
+        this.playerLight = lightMap.addSource(location.x(), location.y(), lightBoxSize + 1);
+
+        PointSet torches = w.getTorchLocations();
+        for (int cell = torches.nextCell(0); cell >= 0; cell = torches.nextCell(cell + 1)) {
+            lightMap.addSource(torches.xOf(cell), torches.yOf(cell), TORCH_LIGHT);
+        }
+        for (int y = 0; y < tiles.height(); y++) {
+            for (int x = 0; x < tiles.width(); x++) {
+                boolean coin = tiles.has(x, y, TilePalette.COLLECTIBLE);
+                coinLights[y * tiles.width() + x] = coin ? lightMap.addSource(x, y, COIN_LIGHT) : -1;
+            }
+        }
+    }
+
+    private void putOutCoinLight(int x, int y) {
+        int cell = y * tiles.width() + x;
+        if (coinLights[cell] >= 0) {
+            lightMap.removeSource(coinLights[cell]);
+            coinLights[cell] = -1;
+        }
     }
 
 
     /**
      * Runs the main game loop, continuously rendering tiles and updating the game state based on user input.
+     * The simulation advances in fixed ticks, and a new frame is only rendered when something changed.
+     * Between ticks the thread sleeps instead of polling the clock.
+     *
+     * @return How the game ended.
      */
-    public void run() {
+    public Outcome run() {
         renderTiles();
-        while (!isLost && !isWin) {
-            long currentTime = System.currentTimeMillis();
-            long elapsedSeconds = (currentTime - startTime) / 1000;
-            this.remainingSeconds = countDown - (int) elapsedSeconds;
-
-            // fun mode
-            // if(this.remainingSeconds % 5 != 0) {
-            //      this.darkMode = true;
-            // } else {
-            // this.darkMode = false;
-            // }
-
-
-            if (character.getMyScore() >= this.scoreToWin) {
-                System.out.println("You Won the Game!");
-                isWin = true;
-            }
-
-
-            if (shouldRenderNewFrame()) {
-                updateTiles();
+        this.pacer = new FramePacer(Simulation.TICKS_PER_SECOND, FRAMES_PER_SECOND);
+        // Journal every move from here on, so a crash can be recovered from
+        if (journal == null) {
+            this.journal = new MoveJournal();
+            this.autoSaver = new AutoSaver();
+        }
+        journal.checkpoint(SnapshotUtils.capture(seed, character, remainingSeconds));
+        Audio.loopMusic("retrobackground.wav");
+        while (!simulation.isOver()) {
+            while (!simulation.isOver() && pacer.shouldTick()) {
+                tick();
             }
 
-            if (shouldRenderAfterOneSecond()) {
-                if (this.remainingSeconds <= 6) {
-                    this.darkMode = true;
-                    if (this.lightBoxSize >= 2) {
-                        this.lightBoxSize--;
-                    }
-                    Audio.playAudio("Countdown.wav");
-                }
+            if (needsRender && pacer.shouldRender()) {
+                needsRender = false;
                 renderTiles();
             }
+            pacer.sync();
         }
 
-        // Handle game over and win conditions
-        if (isLost) {
+        // Handle game over and win conditions, the end tracks replace the background music.
+        // A finished game is not saved, so the last autosave must not be loadable either
+        journal.clear();
+        autoSaver.flush();
+        SnapshotUtils.deleteSave();
+        if (simulation.isLost()) {
             renderTiles();
             System.out.println("You lost the game");
-            Audio.playAudio("Gameover.wav");
-            renderGameOver();
-            waitForRestartOrQuit();
-        } else if (isWin) {
-            System.out.println("You won the game");
-            Audio.playAudio("winGame.wav");
-            renderWinGame();
-            waitForRestartOrQuit();
+            Audio.playMusic("Gameover.wav");
+            return Outcome.LOST;
         }
-        this.scheduler.shutdown();
+        System.out.println("You won the game");
+        Audio.playMusic("winGame.wav");
+        return Outcome.WON;
     }
 
-    private void waitForRestartOrQuit() {
-        while (true) {
-            if(StdDraw.hasNextKeyTyped()) {
-                char key = StdDraw.nextKeyTyped();
-                if (key == 'Q' || key == 'q') {
-                    System.exit(0);
-                } else if (key == 'R' || key == 'r') {
-                    restartGame();
-                    break;
-                }
-            }
+    /**
+     * Advances the simulation by one tick, which runs the timers that are due and checks for a
+     * win, then handles input.
+     */
+    private void tick() {
+        if (!simulation.step(Simulation.NO_INPUT)) {
+            return;
         }
-    }
 
-    private void restartGame() {
-        this.scheduler.shutdown();
+        // fun mode
+        // if(this.remainingSeconds % 5 != 0) {
+        //      this.darkMode = true;
+        // } else {
+        // this.darkMode = false;
+        // }
 
-        Game newGame = new Game(seed, ter, DEFAULT_TIMER, theme);
-        newGame.initialize();
-        newGame.run();
+        updateTiles();
     }
 
-
     /**
-     * Updates the game state based on user input.
+     * Updates the game state based on user input. Every key typed since the previous tick is handled,
+     * so fast typing is never held back by the tick rate.
      */
     private void updateTiles() {
-        if (StdDraw.mouseX() < 60 && StdDraw.mouseX() != mouseX
-                && StdDraw.mouseY() < 40 && StdDraw.mouseY() != mouseY) {
-            renderLocationText();
-            mouseY = (int) StdDraw.mouseY();
-            mouseX = (int) StdDraw.mouseX();
+        if (ter.mouseX() < 60 && ter.mouseX() != mouseX
+                && ter.mouseY() < 40 && ter.mouseY() != mouseY) {
+            needsRender = true;
+            mouseY = (int) ter.mouseY();
+            mouseX = (int) ter.mouseX();
         }
 
-        if (StdDraw.hasNextKeyTyped()) {
-            char key = StdDraw.nextKeyTyped();
-            key = java.lang.Character.toLowerCase(key);
-            if (key == ':') {
-                prevKey = ':';
-            } else if (key == 'b') {
-                prevKey = ' ';
-                this.darkMode = !this.darkMode;
-            } else if (key == 'a') {
-                prevKey = ' ';
-                character.move(-1, 0);
-            } else if (key == 's') {
-                prevKey = ' ';
-                character.move(0, -1);
-            } else if (key == 'd') {
-                prevKey = ' ';
-                character.move(1, 0);
-            } else if (key == 'w') {
-                prevKey = ' ';
-                character.move(0, 1);
-            } else if (key == 'q' && prevKey == ':') {
-                prevKey = ' ';
-                // Save Snapshot and Exit Here
-                System.out.println("Quit Game");
-                SnapshotUtils.saveSeed(this.seed, this.character, this.remainingSeconds);
-                System.exit(0);
-            } else {
-                prevKey = ' ';
-                System.out.println("Does not support the key: " + key);
+        while (ter.pollInput(event)) {
+            if (event.type() == InputEvent.KEY_TYPED) {
+                handleKey(event.key());
             }
-            renderTiles();
+            needsRender = true;
         }
     }
 
+    /**
+     * Handles a single typed key.
+     *
+     * @param typedKey The key typed by the player.
+     */
+    private void handleKey(char typedKey) {
+        char key = java.lang.Character.toLowerCase(typedKey);
+        if (key == ':') {
+            prevKey = ':';
+        } else if (key == 'b') {
+            prevKey = ' ';
+            this.darkMode = !this.darkMode;
+            dirty.markAll();
+        } else if (simulation.input(key)) {
+            prevKey = ' ';
+        } else if (key == 'q' && prevKey == ':') {
+            prevKey = ' ';
+            // Save Snapshot and Exit Here
+            System.out.println("Quit Game");
+            autoSaver.save(SnapshotUtils.capture(seed, character, remainingSeconds));
+            autoSaver.flush();
+            System.exit(0);
+        } else {
+            prevKey = ' ';
+            System.out.println("Does not support the key: " + key);
+        }
+    }
 
-    private void renderGameOver() {
-        while (true) {
-            if (shouldRenderNewFrame()) {
-                StdDraw.clear(Color.BLACK);
-                StdDraw.setPenColor(Color.WHITE);
-                StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 35));
-                StdDraw.text(30, 30, "Game Over!");
-                StdDraw.text(30, 25, "Good luck Next Time!");
-                StdDraw.text(30, 20, "Press 'Q' to Quit the Game");
-                StdDraw.text(30,17,"Press 'R' to restart the Game");
-                StdDraw.setFont();
-                StdDraw.show();
-
-                if (StdDraw.hasNextKeyTyped()) {
-                    char key = java.lang.Character.toLowerCase(StdDraw.nextKeyTyped());
-                    if (key == 'q') {
-                        System.out.println("Quit the Game");
-                        System.exit(0);
-                    } else if (key == 'r') {
-                        restartGame();
-                        break;
-                    }
-                }
+
+    /**
+     * Reacts to the events of the simulation: journals and lights the character's moves, plays
+     * the sounds, keeps the timer text and autosave going, and turns the lights out for the
+     * final countdown.
+     */
+    private class Events implements SimulationListener {
+        @Override
+        public void moved(int deltaX, int deltaY) {
+            journal.recordMove(deltaX, deltaY);
+            Point location = character.getLocation();
+            lightMap.moveSource(playerLight, location.x(), location.y());
+        }
+
+        @Override
+        public void coinCollected(int x, int y, int score) {
+            journal.recordCoin();
+            putOutCoinLight(x, y);
+            Audio.playAudio("coin.wav");
+            System.out.println(character.getName() + " current Score is: " + score);
+        }
+
+        @Override
+        public void collided(int x, int y) {
+            Audio.playAudio("collision.wav");
+        }
+
+        @Override
+        public void secondPassed(int seconds) {
+            remainingSeconds = seconds;
+            journal.recordTime(seconds);
+            if (++secondsSinceSave >= AUTOSAVE_SECONDS) {
+                secondsSinceSave = 0;
+                autoSaver.save(SnapshotUtils.capture(seed, character, remainingSeconds));
+            }
+            needsRender = true;
+        }
+
+        @Override
+        public void countdown(int seconds) {
+            // The lights go out, the character's light shrinks and the countdown beeps
+            if (!darkMode) {
+                dirty.markAll();
             }
+            darkMode = true;
+            if (lightBoxSize >= 2) {
+                lightBoxSize--;
+                lightMap.setStrength(playerLight, lightBoxSize + 1);
+            }
+            Audio.playAudio("Countdown.wav");
+            needsRender = true;
+        }
+
+        @Override
+        public void won() {
+            System.out.println("You Won the Game!");
+        }
+
+        @Override
+        public void lost() {
+            System.out.println("Timer run out");
         }
     }
 
     /**
-     * Renders the win game screen.
-     * This method displays a congratulatory message and instructions when the player wins the game.
-     * It continuously renders the win screen until the player decides to quit by pressing 'Q'.
+     * Renders the screen shown once the game is over, with the options to restart or quit.
+     *
+     * @param outcome How the game ended.
      */
-    private void renderWinGame() {
-        while (true) {
-            if (shouldRenderNewFrame()) {
-                StdDraw.clear(Color.BLACK);
-                StdDraw.setPenColor(Color.WHITE);
-                StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 35));
-                StdDraw.text(30, 30, "Congratulations! You won the Game");
-                StdDraw.text(30, 25, "Thanks for playing the Game");
-                StdDraw.text(30, 20, "Press 'Q' to Quit the Game");
-                StdDraw.text(30,17,"Press 'R' to restart the Game");
-
-                StdDraw.setFont();
-                StdDraw.show();
-
-                if (StdDraw.hasNextKeyTyped()) {
-                    char key = java.lang.Character.toLowerCase(StdDraw.nextKeyTyped());
-                    if (key == 'q') {
-                        System.out.println("Quit the Game");
-                        System.exit(0);
-                    } else if (key == 'r') {
-                        restartGame();
-                        break;
-                    }
-                }
-            }
+    public void renderEndScreen(Outcome outcome) {
+        ter.clear(Color.BLACK);
+        ter.setPenColor(Color.WHITE);
+        ter.setFont(new Font("Comic Sans MS", Font.PLAIN, 35));
+        if (outcome == Outcome.LOST) {
+            ter.text(30, 30, "Game Over!");
+            ter.text(30, 25, "Good luck Next Time!");
+        } else {
+            ter.text(30, 30, "Congratulations! You won the Game");
+            ter.text(30, 25, "Thanks for playing the Game");
         }
+        ter.text(30, 20, "Press 'Q' to Quit the Game");
+        ter.text(30,17,"Press 'R' to restart the Game");
+        ter.setFont();
+        ter.show();
     }
 
     /**
      * Renders the current state of the tiles on the screen, including the character's location.
      */
     private void renderTiles() {
+        tiles.copyInto(frame);
         if (this.darkMode) {
-            TETile[][] darkTiles = ManipulateTiles.darkMode(tiles, character, theme, this.lightBoxSize);
-            ter.renderFrame(darkTiles);
-        } else {
-            ter.renderFrame(this.tiles);
+            // Only the cells that came into or went out of view, or whose light changed, are marked as changed
+            Point location = character.getLocation();
+            fieldOfView.update(tiles, location.x(), location.y(), VIEW_DISTANCE, dirty);
+            fieldOfView.applyMask(tiles, frame, theme.getBackground(), lightMap);
         }
+        ter.renderChanges(frame, dirty);
+        clearStatusBar();
         renderTips();
         renderLocationText();
         renderSecondsLeft();
     }
 
+    /**
+     * Clears the status bar above the world, since the renderer only redraws the world tiles
+     * that changed and would otherwise leave the previous text behind.
+     */
+    private void clearStatusBar() {
+        ter.setPenColor(Color.BLACK);
+        ter.filledRectangle(RoomPlot.BOARD_LENGTH / 2.0, RoomPlot.BOARD_HEIGHT + 1.5,
+                RoomPlot.BOARD_LENGTH / 2.0, 1.5);
+    }
+
     /**
      * Renders the remaining time on the screen.
      * Displays the remaining time left in seconds for the player to complete the game.
      */
     private void renderSecondsLeft() {
         String text = "Time Left: " + this.remainingSeconds;
-        StdDraw.setPenColor(StdDraw.WHITE);
-        StdDraw.text(55, RoomPlot.BOARD_HEIGHT + 2, text);
-        StdDraw.show();
+        ter.setPenColor(Color.WHITE);
+        ter.text(55, RoomPlot.BOARD_HEIGHT + 2, text);
+        ter.show();
     }
 
 
@@ -334,14 +422,14 @@ public class Game {
      */
     private void renderTips() {
         String text = "[B] to lose vision | [:q] to save and quit";
-        StdDraw.setPenColor(StdDraw.WHITE);
-        StdDraw.text(22, RoomPlot.BOARD_HEIGHT + 2, text);
+        ter.setPenColor(Color.WHITE);
+        ter.text(22, RoomPlot.BOARD_HEIGHT + 2, text);
 
         int coinsLeft = w.getTotalNumCoins() - character.getMyScore();
         String text2 = "Coins Left: " + coinsLeft + "|";
-        StdDraw.text(47, RoomPlot.BOARD_HEIGHT + 2, text2);
+        ter.text(47, RoomPlot.BOARD_HEIGHT + 2, text2);
 
-        StdDraw.show();
+        ter.show();
     }
 
     /**
@@ -349,97 +437,39 @@ public class Game {
      */
     private void renderLocationText() {
 
-        int xPressed = (int) StdDraw.mouseX();
-        int yPressed = (int) StdDraw.mouseY();
+        int xPressed = (int) ter.mouseX();
+        int yPressed = (int) ter.mouseY();
         if (xPressed > 59 || yPressed > 39) {
             return;
         }
         String text = "";
-        StdDraw.setPenColor(Color.BLACK);
-        StdDraw.filledRectangle(6, RoomPlot.BOARD_HEIGHT + 2, 5, 1);
-        StdDraw.setPenColor(Color.WHITE);
-        if (tiles[xPressed][yPressed] == theme.getWall()) {
+        ter.setPenColor(Color.BLACK);
+        ter.filledRectangle(6, RoomPlot.BOARD_HEIGHT + 2, 5, 1);
+        ter.setPenColor(Color.WHITE);
+        TETile tile = tiles.get(xPressed, yPressed);
+        if (tile == theme.getWall()) {
             text = "Object: Wall";
         }
 
-        if (tiles[xPressed][yPressed] == theme.getBackground()) {
+        if (tile == theme.getBackground()) {
             text = "Object: Nothing";
         }
 
-        if (tiles[xPressed][yPressed] == theme.getFloor()) {
+        if (tile == theme.getFloor()) {
             text = "Object: Floor";
         }
 
-        if (tiles[xPressed][yPressed] == Tileset.COIN_ICON) {
+        if (tile == Tileset.COIN_ICON) {
             text = "Object: Coin";
         }
 
-        if (tiles[xPressed][yPressed] == theme.getCharacter2() || tiles[xPressed][yPressed] == theme.getCharacter()) {
+        if (tile == theme.getCharacter2() || tile == theme.getCharacter()) {
             text = "Object: Character";
         }
 
         //String text = "Item: " + xPressed + " " + yPressed;
-        StdDraw.setPenColor(StdDraw.WHITE);
-        StdDraw.text(6, RoomPlot.BOARD_HEIGHT + 2, text);
-        StdDraw.show();
-    }
-
-    /**
-     * Checks whether a new frame should be rendered based on the elapsed time.
-     *
-     * @return True if a new frame should be rendered, false otherwise.
-     */
-    private boolean shouldRenderNewFrame() {
-        if (frameDeltaTime() > FRAME_RATE) {
-            resetFrameTimer();
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Checks whether a new frame should be rendered after one second based on the elapsed time.
-     *
-     * @return True if a new frame should be rendered after one second, false otherwise.
-     */
-    private boolean shouldRenderAfterOneSecond() {
-        if (timerDeltaTime() > 1000) {
-            resetTimer();
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Calculates the time elapsed since the previous timer reset.
-     *
-     * @return The time elapsed in milliseconds.
-     */
-    private long timerDeltaTime() {
-        return System.currentTimeMillis() - prevTimerTime;
-    }
-
-    /**
-     * Resets the timer for tracking the elapsed time between frames.
-     */
-    private void resetTimer() {
-        prevTimerTime = System.currentTimeMillis();
-    }
-
-    /**
-     * Calculates the time elapsed since the previous frame was rendered.
-     *
-     * @return The time elapsed in milliseconds.
-     */
-    private long frameDeltaTime() {
-        return System.currentTimeMillis() - prevFrameTimestamp;
-    }
-
-    /**
-     * Resets the timer for tracking the elapsed time between frames.
-     */
-    private void resetFrameTimer() {
-        prevFrameTimestamp = System.currentTimeMillis();
+        ter.setPenColor(Color.WHITE);
+        ter.text(6, RoomPlot.BOARD_HEIGHT + 2, text);
+        ter.show();
     }
 }
-
@@ -0,0 +1,164 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The HallwayPlanner class decides which rooms are joined by hallways.
+ * Starting from the first room, it repeatedly connects the most recently connected
+ * room to its closest unconnected neighbor, which links every room as a tree.
+ *
+ * Room middles are stored in an implicit KD-tree so that each closest-neighbor
+ * lookup only visits a few branches instead of every room. Subtrees keep a count
+ * of their unconnected rooms, which lets the search skip branches that are
+ * already fully connected.
+ */
+public class HallwayPlanner {
+    private final List<Room> rooms;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] tree;
+    private final int[] unconnected;
+    private final boolean[] connected;
+    private int bestIndex;
+    private long bestDistance;
+
+    /**
+     * Constructs a new HallwayPlanner and builds the KD-tree over the room middles.
+     *
+     * @param rooms The rooms to connect. The first room is where the hallway tree starts.
+     */
+    public HallwayPlanner(List<Room> rooms) {
+        int n = rooms.size();
+        this.rooms = rooms;
+        this.xs = new int[n];
+        this.ys = new int[n];
+        this.tree = new int[n];
+        this.unconnected = new int[n];
+        this.connected = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Point middle = rooms.get(i).getMiddle();
+            xs[i] = middle.x();
+            ys[i] = middle.y();
+            tree[i] = i;
+        }
+        build(0, n, 0, new long[n]);
+    }
+
+    /**
+     * Plans the hallways between all rooms.
+     *
+     * @return The hallways as pairs of rooms, in the order they should be drawn.
+     */
+    public List<Room[]> connect() {
+        List<Room[]> hallways = new ArrayList<>();
+        if (rooms.isEmpty()) {
+            return hallways;
+        }
+        int last = 0;
+        markConnected(last);
+        for (int i = 0; i < rooms.size() - 1; i++) {
+            int next = closestUnconnected(last);
+            hallways.add(new Room[] {rooms.get(last), rooms.get(next)});
+            markConnected(next);
+            last = next;
+        }
+        return hallways;
+    }
+
+    /**
+     * Arranges tree[lo, hi) so that the median on the current axis sits in the middle,
+     * with smaller coordinates on its left and larger ones on its right.
+     */
+    private void build(int lo, int hi, int depth, long[] keys) {
+        if (hi - lo <= 0) {
+            return;
+        }
+        int[] axis = depth % 2 == 0 ? xs : ys;
+        for (int i = lo; i < hi; i++) {
+            keys[i] = ((long) axis[tree[i]] << 32) | tree[i];
+        }
+        Arrays.sort(keys, lo, hi);
+        for (int i = lo; i < hi; i++) {
+            tree[i] = (int) keys[i];
+        }
+        int mid = (lo + hi) >>> 1;
+        unconnected[mid] = hi - lo;
+        build(lo, mid, depth + 1, keys);
+        build(mid + 1, hi, depth + 1, keys);
+    }
+
+    /**
+     * Marks a room as connected and updates the unconnected counts along its path in the tree.
+     */
+    private void markConnected(int room) {
+        connected[room] = true;
+        int lo = 0;
+        int hi = tree.length;
+        int depth = 0;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            unconnected[mid]--;
+            if (tree[mid] == room) {
+                return;
+            }
+            int[] axis = depth % 2 == 0 ? xs : ys;
+            long key = ((long) axis[room] << 32) | room;
+            long midKey = ((long) axis[tree[mid]] << 32) | tree[mid];
+            if (key < midKey) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+            depth++;
+        }
+    }
+
+    /**
+     * Finds the unconnected room closest to the given room. Ties go to the room
+     * that comes first in the room list.
+     */
+    private int closestUnconnected(int room) {
+        bestIndex = -1;
+        bestDistance = Long.MAX_VALUE;
+        search(0, tree.length, 0, xs[room], ys[room]);
+        return bestIndex;
+    }
+
+    private void search(int lo, int hi, int depth, int x, int y) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (unconnected[mid] == 0) {
+            return;
+        }
+        int candidate = tree[mid];
+        if (!connected[candidate]) {
+            long dx = xs[candidate] - x;
+            long dy = ys[candidate] - y;
+            long distance = dx * dx + dy * dy;
+            if (distance < bestDistance || (distance == bestDistance && candidate < bestIndex)) {
+                bestDistance = distance;
+                bestIndex = candidate;
+            }
+        }
+
+        long diff = depth % 2 == 0 ? x - xs[candidate] : y - ys[candidate];
+        boolean leftFirst = diff <= 0;
+        if (leftFirst) {
+            search(lo, mid, depth + 1, x, y);
+        } else {
+            search(mid + 1, hi, depth + 1, x, y);
+        }
+        // The far side can only hold an equally close room if the splitting line is no farther than the best so far
+        if (diff * diff <= bestDistance) {
+            if (leftFirst) {
+                search(mid + 1, hi, depth + 1, x, y);
+            } else {
+                search(lo, mid, depth + 1, x, y);
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package core;
 
+import tileengine.Java2DBackend;
+import tileengine.StdDrawBackend;
 import tileengine.TERenderer;
-import tileengine.Tileset;
+import utils.Audio;
 
 
 /**
@@ -14,29 +16,14 @@ import tileengine.Tileset;
 public class  Main {
     public static void main(String[] args) {
         // Theme selection
-        final Theme necromancerTheme1 = new Theme(Tileset.WALL, Tileset.FLOOR,
-                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
-
-        final Theme necromancerTheme2 = new Theme(Tileset.WALL_ORANGE, Tileset.FLOOR_ORANGE,
-                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
-
-        final Theme necromancerTheme3 = new Theme(Tileset.WALL_YELLOW, Tileset.FLOOR_YELLOW,
-                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
-
-        final Theme necromancerTheme4 = new Theme(Tileset.WALL_GREEN, Tileset.FLOOR_GREEN,
-                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
-
-        final Theme necromancerTheme5 = new Theme(Tileset.WALL_BLUE, Tileset.FLOOR_BLUE,
-                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
-
-        final Theme necromancerTheme6 = new Theme(Tileset.WALL_PINK, Tileset.FLOOR_PINK,
-            Tileset.NOTHING, Tileset.AVATAR, Tileset.AVATAR);
-
-        Theme[] themes = {necromancerTheme1, necromancerTheme2, necromancerTheme3,
-                             necromancerTheme4, necromancerTheme5, necromancerTheme6};
-        // Rendering
-        TERenderer ter = new TERenderer();
-        ter.initialize(RoomPlot.BOARD_LENGTH, RoomPlot.BOARD_HEIGHT + 3); // initialize StdDraw
+        Theme[] themes = Theme.defaultThemes();
+        // Rendering, run with -Drenderer=java2d to draw into a Java2D backbuffer instead of StdDraw
+        boolean useJava2D = "java2d".equalsIgnoreCase(System.getProperty("renderer"));
+        TERenderer ter = new TERenderer(useJava2D ? new Java2DBackend() : new StdDrawBackend());
+        ter.initialize(RoomPlot.BOARD_LENGTH, RoomPlot.BOARD_HEIGHT + 3); // initialize the window
+
+        // Decode the sound effects in the background while the menu is up
+        Audio.preload("coin.wav", "collision.wav", "Countdown.wav");
 
         // Game engine
         GameEngine engine = new GameEngine(ter, themes);
@@ -1,15 +1,16 @@
 package core;
 
-import edu.princeton.cs.algs4.StdDraw;
+import tileengine.InputEvent;
 import tileengine.TERenderer;
-import utils.FileUtils;
+import utils.MoveJournal;
+import utils.SnapshotUtils;
 
 import java.awt.*;
 
 
 /**
  * The `Menu` class provides a menu system for starting a new game, loading a game, or quitting the application.
- * It interacts with the user through StdDraw to capture input and display menu options.
+ * It interacts with the user through the TERenderer to capture input and display menu options.
  *
  * The menu allows the user to enter a seed for generating a new game or loading an existing game.
  *
@@ -17,9 +18,10 @@ import java.awt.*;
  * @since Apr 15 2025
  */
 public class Menu {
+    private static final long INPUT_WAIT_NANOS = 1_000_000_000L;
+    private final InputEvent event = new InputEvent();
     private TERenderer ter;
     char key;
-    private long prevFrameTimestamp;
     private boolean handleSeed;
     private boolean isLoading;
     private boolean savedGameExists;
@@ -36,7 +38,7 @@ public class Menu {
         this.handleSeed = false;
         this.isLoading = false;
         this.seed = "";
-        StdDraw.setPenColor(Color.WHITE);
+        ter.setPenColor(Color.WHITE);
         savedGameExists = doesSavedFileExists();
         if (savedGameExists) {
             displayMenuWithLoadOption();
@@ -53,7 +55,8 @@ public class Menu {
      */
     public long run() {
         while (java.lang.Character.toLowerCase(key) != 's' || seed.length() < 1) {
-            if (shouldRenderNewFrame()) {
+            // Sleep until the player types something, there is nothing to animate
+            if (ter.awaitInput(INPUT_WAIT_NANOS)) {
                 handleInput();
             }
         }
@@ -68,72 +71,77 @@ public class Menu {
     }
 
     private boolean doesSavedFileExists() {
-        return FileUtils.fileExists("save-file.txt");
+        // Only look at the journal header here, the journal is replayed when the game is loaded
+        return SnapshotUtils.saveExists() || MoveJournal.hasCheckpoint();
     }
 
     /**
      * Displays the initial menu with options for starting a new game, loading a game, or quitting.
      */
     public void displayMenuWithLoadOption() {
-        StdDraw.clear(Color.BLACK);
-        StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 60));
-        StdDraw.text(60 / 2.0, 40 / 1.5, "CS61B: THE GAME");
-        StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
-        StdDraw.text(30, 16, "New Game (N)");
-        StdDraw.text(30, 14, "Load Game (L)");
-        StdDraw.text(30, 12, "Quit (Q)");
-        StdDraw.show();
-        StdDraw.setFont();
+        ter.clear(Color.BLACK);
+        ter.setFont(new Font("Comic Sans MS", Font.PLAIN, 60));
+        ter.text(60 / 2.0, 40 / 1.5, "CS61B: THE GAME");
+        ter.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
+        ter.text(30, 16, "New Game (N)");
+        ter.text(30, 14, "Load Game (L)");
+        ter.text(30, 12, "Quit (Q)");
+        ter.show();
+        ter.setFont();
     }
 
     public void displayMenuWithoutLoadOption() {
-        StdDraw.clear(Color.BLACK);
-        StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 60));
-        StdDraw.text(60 / 2.0, 40 / 1.5, "CS61B: THE GAME");
-        StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
-        StdDraw.text(30, 16, "New Game (N)");
-        StdDraw.text(30, 14, "Quit (Q)");
-        StdDraw.show();
-        StdDraw.setFont();
+        ter.clear(Color.BLACK);
+        ter.setFont(new Font("Comic Sans MS", Font.PLAIN, 60));
+        ter.text(60 / 2.0, 40 / 1.5, "CS61B: THE GAME");
+        ter.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
+        ter.text(30, 16, "New Game (N)");
+        ter.text(30, 14, "Quit (Q)");
+        ter.show();
+        ter.setFont();
     }
 
     /**
      * Displays the seed input menu, allowing the user to enter a seed for starting a new game.
      */
     private void seedMenu() {
-        StdDraw.clear(Color.BLACK);
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
-        StdDraw.text(30, 25, "Enter A Seed:");
-        StdDraw.text(30, 20, seed);
-        StdDraw.text(30, 15, "Press S to Start");
-        StdDraw.setFont();
-        StdDraw.show();
+        ter.clear(Color.BLACK);
+        ter.setPenColor(Color.WHITE);
+        ter.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
+        ter.text(30, 25, "Enter A Seed:");
+        ter.text(30, 20, seed);
+        ter.text(30, 15, "Press S to Start");
+        ter.setFont();
+        ter.show();
     }
 
     /**
      * Handles user input based on the current state of the menu (new game, load game, or seed input).
      */
     public void loadingScreen() {
-        StdDraw.clear(Color.BLACK);
-        StdDraw.setPenColor(Color.WHITE);
-        StdDraw.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
-        StdDraw.text(30, 30, "You are aboard an Alien Spacecraft");
-        StdDraw.text(30, 25, "Unfortunatly you got capture by the Aliens.");
-        StdDraw.text(30, 20, "Next time!, chose smaller key to run away from the Aliens");
-        StdDraw.text(30, 5, "Good luck Soldier!");
-
-
-        StdDraw.setFont();
-        StdDraw.show();
-        StdDraw.pause(50);
+        ter.clear(Color.BLACK);
+        ter.setPenColor(Color.WHITE);
+        ter.setFont(new Font("Comic Sans MS", Font.PLAIN, 30));
+        ter.text(30, 30, "You are aboard an Alien Spacecraft");
+        ter.text(30, 25, "Unfortunatly you got capture by the Aliens.");
+        ter.text(30, 20, "Next time!, chose smaller key to run away from the Aliens");
+        ter.text(30, 5, "Good luck Soldier!");
+
+
+        ter.setFont();
+        ter.show();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
 
     }
 
 
     private void handleInput() {
-        if (StdDraw.hasNextKeyTyped()) {
-            this.key = StdDraw.nextKeyTyped();
+        if (ter.pollInput(event) && event.type() == InputEvent.KEY_TYPED) {
+            this.key = event.key();
             if (handleSeed) {
                 if (key == 'S' || key == 's') {
                     System.out.println("Go to Game");
@@ -177,33 +185,4 @@ public class Menu {
             }
         }
     }
-
-    /**
-     * Checks whether a new frame should be rendered based on the elapsed time.
-     *
-     * @return True if a new frame should be rendered, false otherwise.
-     */
-    private boolean shouldRenderNewFrame() {
-        if (frameDeltaTime() > 16) {
-            resetFrameTimer();
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Calculates the time elapsed since the previous frame was rendered.
-     *
-     * @return The time elapsed in milliseconds.
-     */
-    private long frameDeltaTime() {
-        return System.currentTimeMillis() - prevFrameTimestamp;
-    }
-
-    /**
-     * Resets the timer for tracking the elapsed time between frames.
-     */
-    private void resetFrameTimer() {
-        prevFrameTimestamp = System.currentTimeMillis();
-    }
 }
@@ -0,0 +1,105 @@
+package core;
+
+import java.util.BitSet;
+
+/**
+ * The OccupancyMap class keeps track of which cells of the game board are taken
+ * by rooms. Cells are stored in a packed bitset, and a summed-area table built
+ * from the bitset answers "is anything inside this rectangle?" in constant time.
+ *
+ * The table is rebuilt lazily: writes only flip bits and remember the lowest
+ * row that changed, and the next query refreshes the table from that row up.
+ */
+public class OccupancyMap {
+    private final int width;
+    private final int height;
+    private final BitSet cells;
+    private final int[] sums;
+    private int staleFromRow;
+
+    /**
+     * Constructs an empty OccupancyMap for a board of the given size.
+     *
+     * @param width  The number of columns on the board.
+     * @param height The number of rows on the board.
+     */
+    public OccupancyMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new BitSet(width * height);
+        this.sums = new int[(width + 1) * (height + 1)];
+        this.staleFromRow = height;
+    }
+
+    /**
+     * Marks a single cell as occupied or free.
+     *
+     * @param x        The x-coordinate of the cell.
+     * @param y        The y-coordinate of the cell.
+     * @param occupied True if the cell is taken, false if it is free.
+     */
+    public void set(int x, int y, boolean occupied) {
+        int index = y * width + x;
+        if (cells.get(index) != occupied) {
+            cells.set(index, occupied);
+            staleFromRow = Math.min(staleFromRow, y);
+        }
+    }
+
+    /**
+     * Checks whether a single cell is occupied.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return True if the cell is occupied, false otherwise.
+     */
+    public boolean isOccupied(int x, int y) {
+        return cells.get(y * width + x);
+    }
+
+    /**
+     * Checks whether any cell inside the rectangle is occupied. Both corners are
+     * inclusive, and parts of the rectangle outside the board are ignored.
+     *
+     * @param x0 The left edge of the rectangle.
+     * @param y0 The bottom edge of the rectangle.
+     * @param x1 The right edge of the rectangle.
+     * @param y1 The top edge of the rectangle.
+     * @return True if at least one cell in the rectangle is occupied, false otherwise.
+     */
+    public boolean isAreaOccupied(int x0, int y0, int x1, int y1) {
+        x0 = Math.max(x0, 0);
+        y0 = Math.max(y0, 0);
+        x1 = Math.min(x1, width - 1);
+        y1 = Math.min(y1, height - 1);
+        if (x0 > x1 || y0 > y1) {
+            return false;
+        }
+        refresh();
+        int count = sum(x1 + 1, y1 + 1) - sum(x0, y1 + 1) - sum(x1 + 1, y0) + sum(x0, y0);
+        return count > 0;
+    }
+
+    /**
+     * Rebuilds the summed-area table from the lowest changed row upwards.
+     */
+    private void refresh() {
+        for (int y = staleFromRow; y < height; y++) {
+            int rowSum = 0;
+            for (int x = 0; x < width; x++) {
+                if (cells.get(y * width + x)) {
+                    rowSum++;
+                }
+                sums[(y + 1) * (width + 1) + x + 1] = sum(x + 1, y) + rowSum;
+            }
+        }
+        staleFromRow = height;
+    }
+
+    /**
+     * Returns the number of occupied cells in [0, x) by [0, y).
+     */
+    private int sum(int x, int y) {
+        return sums[y * (width + 1) + x];
+    }
+}
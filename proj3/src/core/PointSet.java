@@ -0,0 +1,156 @@
+package core;
+
+/**
+ * The `PointSet` class is a set of board positions stored as one bit per cell, without
+ * boxing a `Point` for every entry.
+ *
+ * Cells are numbered row by row, {@code y * width + x}, so walking the set with
+ * {@link #nextCell(int)} visits the positions bottom row first and left to right within a
+ * row, and allocates nothing:
+ * <pre>
+ *     for (int cell = set.nextCell(0); cell >= 0; cell = set.nextCell(cell + 1)) {
+ *         int x = set.xOf(cell);
+ *         int y = set.yOf(cell);
+ *     }
+ * </pre>
+ *
+ * A set can be frozen, after which it rejects changes and can be shared freely.
+ */
+public class PointSet {
+    private final int width;
+    private final int height;
+    private final long[] words;
+    private int size;
+    private boolean frozen;
+
+    /**
+     * Constructs a new empty `PointSet` for a board of the given size.
+     *
+     * @param width  The width of the board.
+     * @param height The height of the board.
+     */
+    public PointSet(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.words = new long[(width * height + 63) >>> 6];
+    }
+
+    /**
+     * Constructs a new empty `PointSet` for the game board.
+     */
+    public PointSet() {
+        this(RoomPlot.BOARD_LENGTH, RoomPlot.BOARD_HEIGHT);
+    }
+
+    /**
+     * Constructs a new `PointSet` holding the same positions as another one. The copy is not frozen.
+     *
+     * @param other The set to copy.
+     */
+    public PointSet(PointSet other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.words = other.words.clone();
+        this.size = other.size;
+    }
+
+    /**
+     * Adds a position to the set.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return True if the position was not in the set yet.
+     * @throws IllegalArgumentException If the position is outside the board.
+     * @throws UnsupportedOperationException If the set is frozen.
+     */
+    public boolean add(int x, int y) {
+        if (frozen) {
+            throw new UnsupportedOperationException("set is frozen");
+        }
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IllegalArgumentException("Point (" + x + ", " + y + ") is outside the board");
+        }
+        int cell = y * width + x;
+        long bit = 1L << cell;
+        if ((words[cell >>> 6] & bit) != 0) {
+            return false;
+        }
+        words[cell >>> 6] |= bit;
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks whether a position is in the set.
+     *
+     * @param x The x-coordinate of the position.
+     * @param y The y-coordinate of the position.
+     * @return True if the position is in the set, false if it is not or is outside the board.
+     */
+    public boolean contains(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        int cell = y * width + x;
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Finds the first cell in the set at or after the given cell.
+     *
+     * @param fromCell The cell number to start from.
+     * @return The cell number, or -1 if there is none.
+     */
+    public int nextCell(int fromCell) {
+        int w = fromCell >>> 6;
+        if (fromCell < 0 || w >= words.length) {
+            return -1;
+        }
+        long word = words[w] & (-1L << fromCell);
+        while (word == 0) {
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Gets the x-coordinate of a cell returned by {@link #nextCell(int)}.
+     *
+     * @param cell The cell number.
+     * @return The x-coordinate.
+     */
+    public int xOf(int cell) {
+        return cell % width;
+    }
+
+    /**
+     * Gets the y-coordinate of a cell returned by {@link #nextCell(int)}.
+     *
+     * @param cell The cell number.
+     * @return The y-coordinate.
+     */
+    public int yOf(int cell) {
+        return cell / width;
+    }
+
+    /**
+     * Marks the set as read-only.
+     *
+     * @return This set.
+     */
+    public PointSet freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -1,8 +1,7 @@
 package core;
 
 import tileengine.TETile;
-import java.util.HashSet;
-import java.util.Stack;
+import java.util.List;
 
 
 /**
@@ -23,8 +22,6 @@ public class RoomPlot {
     private TETile floor;
     private Board board;
     private RoomGenerator rGen;
-    private Stack<Room> connectedStack;
-    private HashSet<Room> connectedSet;
 
 
     /**
@@ -42,8 +39,6 @@ public class RoomPlot {
         this.wall = theme.getWall();
         this.background = theme.getBackground();
         this.floor = theme.getFloor();
-        this.connectedStack = new Stack<>();
-        this.connectedSet = new HashSet<>();
     }
 
     /**
@@ -78,39 +73,22 @@ public class RoomPlot {
     }
 
     private Room pickRandomRoom() {
-        int roomIndex = rGen.getRandomUpTo(board.getRooms().size());
-        return board.getRooms().get(roomIndex);
+        List<Room> rooms = board.getRooms();
+        int roomIndex = rGen.getRandomUpTo(rooms.size());
+        return rooms.get(roomIndex);
     }
 
 
     /**
      * Creates hallways to connect all rooms on the game board.
-     * The method connects rooms by finding the closest
-     * unconnected neighbor for each room. It populates the connectedStack and
-     * connectedSet to keep track of the connected rooms.
+     * The HallwayPlanner connects rooms by finding the closest
+     * unconnected neighbor for each room, starting from the most left room.
      * The method guarantees that the rooms are at least all-connected as a tree.
      */
     public void createHallways() {
-        connectedStack.push(board.getRooms().get(0));      // added the most left room to connectedSet
-        connectedSet.add(board.getRooms().get(0));
-
-        Room closetNeighbor = null;
-        for (int i = 0; i < board.getRooms().size() - 1; i++) {
-            Room lastConnectedRoom = connectedStack.pop();
-            double shortestDistance = Double.POSITIVE_INFINITY;
-            for (int index = 0; index < board.getRooms().size(); index++) {
-                Room newRoom = board.getRooms().get(index);
-                if (!connectedSet.contains(newRoom)) {
-                    double distance = lastConnectedRoom.distanceTo(newRoom);
-                    if (distance < shortestDistance) {
-                        shortestDistance = distance;
-                        closetNeighbor = board.getRooms().remove(index);
-                    }
-                }
-            }
-            drawHallway(lastConnectedRoom, closetNeighbor);
-            connectedStack.push(closetNeighbor);
-            connectedSet.add(closetNeighbor);
+        List<Room> rooms = board.getRooms();
+        for (Room[] hallway : new HallwayPlanner(rooms).connect()) {
+            drawHallway(hallway[0], hallway[1]);
         }
     }
 
@@ -129,7 +107,7 @@ public class RoomPlot {
         for (int i = room.getStartX(); i < room.getStartX() + room.getLength(); i++) {
             for (int j = room.getStartY(); j < room.getStartY() + room.getHeight(); j++) {
                 if (validIndex(i, j)) {
-                    if ((board.getTiles()[i][j] != floor)  && (j == room.getStartY()
+                    if ((board.getTile(i, j) != floor)  && (j == room.getStartY()
                             || j == room.getStartY() + room.getHeight() - 1
                             || i == room.getStartX() || i == room.getStartX() + room.getLength() - 1)) {
                         board.setTiles(i, j, wall);
@@ -244,14 +222,14 @@ public class RoomPlot {
         }
 
         for (int i = r1.getStartX() + r1.getLength() - 1; i < r2.getStartX() + 1; i++) {
-            if (board.getTiles()[i][hallIndex] == wall
-                    || board.getTiles()[i][hallIndex] == background
-                    || board.getTiles()[i][hallIndex] == wall) {
+            if (board.getTile(i, hallIndex) == wall
+                    || board.getTile(i, hallIndex) == background
+                    || board.getTile(i, hallIndex) == wall) {
                 board.setTiles(i, hallIndex, floor);
-                if (board.getTiles()[i][hallIndex - 1] != floor) {
+                if (board.getTile(i, hallIndex - 1) != floor) {
                     board.setTiles(i, hallIndex - 1, wall);
                 }
-                if (board.getTiles()[i][hallIndex + 1] != floor) {
+                if (board.getTile(i, hallIndex + 1) != floor) {
                     board.setTiles(i, hallIndex + 1, wall);
                 }
             }
@@ -289,13 +267,13 @@ public class RoomPlot {
             r2 = temp;
         }
         for (int i = r1.getStartY() + r1.getHeight() - 1; i < r2.getStartY() + 1; i++) {
-            if (board.getTiles()[hallIndex][i] == wall
-                    || board.getTiles()[hallIndex][i] == background) {
+            if (board.getTile(hallIndex, i) == wall
+                    || board.getTile(hallIndex, i) == background) {
                 board.setTiles(hallIndex, i, floor);
-                if (board.getTiles()[hallIndex - 1][i] != floor) {
+                if (board.getTile(hallIndex - 1, i) != floor) {
                     board.setTiles(hallIndex - 1, i, wall);
                 }
-                if (board.getTiles()[hallIndex + 1][i] != floor) {
+                if (board.getTile(hallIndex + 1, i) != floor) {
                     board.setTiles(hallIndex + 1, i, wall);
                 }
             }
@@ -344,16 +322,9 @@ public class RoomPlot {
                 || room.getStartY() + room.getHeight() >= BOARD_HEIGHT) {
             return true;
         }
-        // Collision with other existing rooms
-        for (int i = room.getStartX() - 1; i < room.getStartX() + room.getLength() + 1; i++) {
-            for (int j = room.getStartY() - 1; j < room.getStartY() + room.getHeight() + 1; j++) {
-                if (validIndex(i, j) && (board.getTiles()[i][j] == floor
-                        || board.getTiles()[i][j] == wall)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        // Collision with other existing rooms, including a one tile margin around the room
+        return board.isAreaOccupied(room.getStartX() - 1, room.getStartY() - 1,
+                room.getStartX() + room.getLength(), room.getStartY() + room.getHeight());
     }
 
     /**
@@ -0,0 +1,245 @@
+package core;
+
+import tileengine.TileGrid;
+import tileengine.TilePalette;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * The `SeedExplorer` class generates the worlds of a whole range of seeds on every core and
+ * measures each one, for picking out seeds with the most rooms, the most coins, the most
+ * floor to walk on or the longest tree of hallways.
+ *
+ * Seeds are split across a fork-join pool. Every world is generated from scratch with
+ * `new World(seed, theme)`, which keeps all of its random state inside the world, so the
+ * workers share nothing but the read-only themes, and no world goes through a
+ * {@link WorldCache}. Results come out in seed order, either as a list filtered by a predicate
+ * or streamed to a CSV file a block of seeds at a time, so a long range never sits in memory.
+ *
+ * Run it on its own with {@code java core.SeedExplorer <first seed> <last seed> [csv file]}.
+ */
+public class SeedExplorer {
+    public static final String CSV_HEADER = "seed,rooms,coins,floorTiles,hallwayTiles";
+    private static final int SEEDS_PER_TASK = 16;
+    private static final int SEEDS_PER_BLOCK = 4096;
+
+    private final Theme[] themes;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new `SeedExplorer` that gives every seed the theme the game would give it,
+     * using the common fork-join pool.
+     */
+    public SeedExplorer() {
+        this(Theme.defaultThemes(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new `SeedExplorer` with the given themes and pool.
+     *
+     * @param themes The themes to pick from, by seed, the same way the game does.
+     * @param pool   The pool the worlds are generated in.
+     */
+    public SeedExplorer(Theme[] themes, ForkJoinPool pool) {
+        this.themes = themes;
+        this.pool = pool;
+    }
+
+    /**
+     * Generates and measures the world of every seed in a range.
+     *
+     * @param firstSeed The first seed, inclusive.
+     * @param lastSeed  The last seed, inclusive.
+     * @param filter    Keeps only the worlds it accepts, or null to keep them all.
+     * @return The statistics of the worlds kept, in seed order.
+     */
+    public List<WorldStats> explore(long firstSeed, long lastSeed, Predicate<WorldStats> filter) {
+        List<WorldStats> kept = new ArrayList<>();
+        for (long start = firstSeed; start <= lastSeed; start += SEEDS_PER_BLOCK) {
+            for (WorldStats stats : measureBlock(start, Math.min(lastSeed, start + SEEDS_PER_BLOCK - 1))) {
+                if (filter == null || filter.test(stats)) {
+                    kept.add(stats);
+                }
+            }
+            if (start > Long.MAX_VALUE - SEEDS_PER_BLOCK) {
+                break;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Generates and measures the world of every seed in a range and writes one CSV row per
+     * world, after a header. Each block of seeds is written as soon as it is done.
+     *
+     * @param firstSeed The first seed, inclusive.
+     * @param lastSeed  The last seed, inclusive.
+     * @param filter    Writes only the worlds it accepts, or null to write them all.
+     * @param out       Where the CSV goes. It is flushed but not closed.
+     * @throws IOException If writing fails.
+     */
+    public void writeCsv(long firstSeed, long lastSeed, Predicate<WorldStats> filter, Writer out)
+            throws IOException {
+        out.write(CSV_HEADER);
+        out.write('\n');
+        for (long start = firstSeed; start <= lastSeed; start += SEEDS_PER_BLOCK) {
+            for (WorldStats stats : measureBlock(start, Math.min(lastSeed, start + SEEDS_PER_BLOCK - 1))) {
+                if (filter == null || filter.test(stats)) {
+                    out.write(stats.toCsvRow());
+                    out.write('\n');
+                }
+            }
+            out.flush();
+            if (start > Long.MAX_VALUE - SEEDS_PER_BLOCK) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Generates and measures the world of a single seed on the calling thread.
+     *
+     * @param seed The seed of the world.
+     * @return The statistics of the world.
+     */
+    public WorldStats measure(long seed) {
+        World world = new World(seed, Theme.forSeed(themes, seed));
+        TileGrid grid = world.getGrid();
+        int floorTiles = 0;
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                if (!grid.has(x, y, TilePalette.OPAQUE)) {
+                    floorTiles++;
+                }
+            }
+        }
+        return new WorldStats(seed, world.getNumRooms(), world.getTotalNumCoins(), floorTiles,
+                world.getHallwayTiles());
+    }
+
+    private WorldStats[] measureBlock(long firstSeed, long lastSeed) {
+        WorldStats[] results = new WorldStats[(int) (lastSeed - firstSeed + 1)];
+        pool.invoke(new MeasureTask(firstSeed, results, 0, results.length));
+        return results;
+    }
+
+    /**
+     * Measures the seeds {@code firstSeed + from} to {@code firstSeed + to - 1}, splitting the
+     * range in halves until it is small enough to do on one thread. Every task writes only its
+     * own part of the results.
+     */
+    private class MeasureTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final long firstSeed;
+        private final WorldStats[] results;
+        private final int from;
+        private final int to;
+
+        MeasureTask(long firstSeed, WorldStats[] results, int from, int to) {
+            this.firstSeed = firstSeed;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEEDS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    results[i] = measure(firstSeed + i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MeasureTask(firstSeed, results, from, middle),
+                    new MeasureTask(firstSeed, results, middle, to));
+        }
+    }
+
+    /**
+     * The statistics of the world of one seed.
+     */
+    public static class WorldStats {
+        private final long seed;
+        private final int rooms;
+        private final int coins;
+        private final int floorTiles;
+        private final int hallwayTiles;
+
+        WorldStats(long seed, int rooms, int coins, int floorTiles, int hallwayTiles) {
+            this.seed = seed;
+            this.rooms = rooms;
+            this.coins = coins;
+            this.floorTiles = floorTiles;
+            this.hallwayTiles = hallwayTiles;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getRooms() {
+            return rooms;
+        }
+
+        public int getCoins() {
+            return coins;
+        }
+
+        /**
+         * Gets the number of tiles the character can stand on, in rooms and hallways.
+         *
+         * @return The number of floor tiles, counting the coins and the character.
+         */
+        public int getFloorTiles() {
+            return floorTiles;
+        }
+
+        /**
+         * Gets the length of the tree of hallways connecting the rooms.
+         *
+         * @return The number of floor tiles outside the rooms.
+         */
+        public int getHallwayTiles() {
+            return hallwayTiles;
+        }
+
+        /**
+         * Formats the statistics as a row matching {@link #CSV_HEADER}.
+         *
+         * @return The row, without a line break.
+         */
+        public String toCsvRow() {
+            return seed + "," + rooms + "," + coins + "," + floorTiles + "," + hallwayTiles;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java core.SeedExplorer <first seed> <last seed> [csv file]");
+            return;
+        }
+        long firstSeed = Long.parseLong(args[0]);
+        long lastSeed = Long.parseLong(args[1]);
+        Writer out = args.length > 2
+                ? new BufferedWriter(new FileWriter(args[2]))
+                : new BufferedWriter(new OutputStreamWriter(System.out));
+        try {
+            new SeedExplorer().writeCsv(firstSeed, lastSeed, null, out);
+        } finally {
+            out.flush();
+            if (args.length > 2) {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package core;
+
+import tileengine.InputEvent;
+import tileengine.TERenderer;
+import utils.SnapshotUtils;
+
+/**
+ * The `SessionManager` class drives the game from the menu through any number of sessions.
+ *
+ * It is a flat state machine: the menu, starting or loading a game, playing it and the end
+ * screen are states of a single loop, so restarting a game never nests one session inside the
+ * previous one. One `Game` object is used for every session, which keeps its tile buffers,
+ * journal and autosave thread alive instead of building new ones on each restart, and
+ * recently played worlds come from a {@link WorldCache}.
+ */
+public class SessionManager {
+    static final double DEFAULT_TIMER = 60;      // default is 60 seconds
+    private static final long INPUT_WAIT_NANOS = 1_000_000_000L;
+    static final long WORLD_CACHE_BYTES = 1 << 20;
+
+    private enum State {
+        MENU,
+        NEW_GAME,
+        LOAD_GAME,
+        PLAY,
+        END
+    }
+
+    private final TERenderer ter;
+    private final Theme[] themes;
+    private final Game game;
+    private final InputEvent event = new InputEvent();
+    private State state;
+    private long seed;
+    private Game.Outcome outcome;
+
+    /**
+     * Constructs a new `SessionManager` that starts at the menu.
+     *
+     * @param ter    The renderer for displaying the menu and the game.
+     * @param themes The themes a world can be drawn with.
+     */
+    public SessionManager(TERenderer ter, Theme[] themes) {
+        this.ter = ter;
+        this.themes = themes;
+        this.game = new Game(ter, new WorldCache(WORLD_CACHE_BYTES));
+        this.state = State.MENU;
+    }
+
+    /**
+     * Runs the state machine. Returns only when the player quits from the menu or the end
+     * screen, which exits the application.
+     */
+    public void run() {
+        while (true) {
+            switch (state) {
+                case MENU:
+                    seed = new Menu(ter).run();
+                    System.out.println("received seed: " + seed);
+                    state = seed < 0 ? State.LOAD_GAME : State.NEW_GAME;
+                    break;
+                case NEW_GAME:
+                    game.initialize(seed, DEFAULT_TIMER, themeFor(seed));
+                    state = State.PLAY;
+                    break;
+                case LOAD_GAME:
+                    state = loadGame() ? State.PLAY : State.MENU;
+                    break;
+                case PLAY:
+                    outcome = game.run();
+                    state = State.END;
+                    break;
+                case END:
+                    game.renderEndScreen(outcome);
+                    awaitRestartOrQuit();
+                    // Restarting plays the same seed again
+                    state = State.NEW_GAME;
+                    break;
+                default:
+                    throw new IllegalStateException("unknown state " + state);
+            }
+        }
+    }
+
+    /**
+     * Loads the saved game into the game.
+     *
+     * @return True if the game was loaded, false if there is no readable save.
+     */
+    private boolean loadGame() {
+        Snapshot snapshot = SnapshotUtils.loadLatest();
+        if (snapshot == null) {
+            return false;
+        }
+
+        this.seed = snapshot.getSeed();
+        game.initialize(seed, snapshot.getTimeLeft(), themeFor(seed));
+        if (!game.restore(snapshot)) {
+            System.out.println("The saved game does not match the world of seed " + seed);
+            return false;
+        }
+        return true;
+    }
+
+    private Theme themeFor(long worldSeed) {
+        return Theme.forSeed(themes, worldSeed);
+    }
+
+    /**
+     * Waits until the player presses R to restart or Q to quit. Quitting exits the application.
+     */
+    private void awaitRestartOrQuit() {
+        while (true) {
+            if (!ter.awaitInput(INPUT_WAIT_NANOS) || !ter.pollInput(event)
+                    || event.type() != InputEvent.KEY_TYPED) {
+                continue;
+            }
+            char key = java.lang.Character.toLowerCase(event.key());
+            if (key == 'q') {
+                System.out.println("Quit the Game");
+                System.exit(0);
+            } else if (key == 'r') {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package core;
+
+import utils.TimingWheel;
+
+/**
+ * The `Simulation` class holds the rules of a game session with nothing to do with the screen,
+ * the keyboard, sound or the wall clock: the world, the character, the score and a timer that
+ * counts simulation ticks instead of real seconds.
+ *
+ * The game moves forward only through {@link #step(char)}, which advances the timer by one tick
+ * and applies one key of input. The same seed, inputs and tick count always lead to the same
+ * state, and everything that happens is reported to a {@link SimulationListener}, so the
+ * {@link Game} draws and plays sounds from those events while bots, tests and replays can run
+ * the simulation on its own, as fast as the machine allows.
+ */
+public class Simulation {
+    public static final int TICKS_PER_SECOND = 50;
+    public static final int COUNTDOWN_SECONDS = 6;
+    public static final char NO_INPUT = 0;
+    private static final int TIMER_BUCKETS = 64;
+
+    private final World world;
+    private final Character character;
+    private final SimulationListener listener;
+    private final double countDown;
+    private final int scoreToWin;
+    private final TimingWheel clock;
+    private int remainingSeconds;
+    private boolean isWin;
+    private boolean isLost;
+
+    /**
+     * Constructs a new `Simulation` of the given world, with the timer starting at the given
+     * number of seconds.
+     *
+     * @param world     The world to play in.
+     * @param countDown The time the player has, in seconds.
+     * @param listener  The listener told about every event, or null to ignore them.
+     */
+    public Simulation(World world, double countDown, SimulationListener listener) {
+        this.world = world;
+        this.character = world.getCharacter();
+        this.listener = listener == null ? SimulationListener.NONE : listener;
+        this.countDown = countDown;
+        this.scoreToWin = world.getTotalNumCoins();
+        this.remainingSeconds = (int) countDown;
+        this.clock = new TimingWheel(TIMER_BUCKETS);
+
+        clock.schedule(secondsToTicks(countDown), this::onTimeout);
+        clock.scheduleRepeating(0, TICKS_PER_SECOND, this::onSecond);
+        // A loaded game may have less than the whole countdown left, and only a fraction of a
+        // second over, so the first beep waits for the next whole second that is left
+        double countdownFrom = Math.min(COUNTDOWN_SECONDS, Math.floor(countDown));
+        clock.scheduleRepeating(secondsToTicks(countDown - countdownFrom), TICKS_PER_SECOND,
+                this::onCountdown);
+    }
+
+    /**
+     * Advances the game by one tick, running the timers that are due, and then applies the input
+     * if the game is not over yet.
+     *
+     * @param input A key typed by the player, or {@link #NO_INPUT}.
+     * @return True if the game is still going on after the step.
+     */
+    public boolean step(char input) {
+        if (isOver()) {
+            return false;
+        }
+        clock.advance();
+        checkWin();
+        if (input != NO_INPUT) {
+            input(input);
+        }
+        return !isOver();
+    }
+
+    /**
+     * Applies a key typed by the player within the current tick, without advancing the timer.
+     * Only the movement keys W, A, S and D do anything; other keys are left to the caller.
+     *
+     * @param key The key typed by the player.
+     * @return True if the key was a movement key.
+     */
+    public boolean input(char key) {
+        switch (java.lang.Character.toLowerCase(key)) {
+            case 'w':
+                move(0, 1);
+                return true;
+            case 'a':
+                move(-1, 0);
+                return true;
+            case 's':
+                move(0, -1);
+                return true;
+            case 'd':
+                move(1, 0);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Moves the character by one tile, unless the game is over, and reports what happened.
+     *
+     * @param deltaX The change in the x-coordinate.
+     * @param deltaY The change in the y-coordinate.
+     */
+    public void move(int deltaX, int deltaY) {
+        if (isOver()) {
+            return;
+        }
+        int result = character.move(deltaX, deltaY);
+        Point location = character.getLocation();
+        if (result == Character.BLOCKED) {
+            listener.collided(location.x(), location.y());
+            return;
+        }
+        listener.moved(deltaX, deltaY);
+        if (result == Character.COLLECTED) {
+            listener.coinCollected(location.x(), location.y(), character.getMyScore());
+            checkWin();
+        }
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Character getCharacter() {
+        return character;
+    }
+
+    public long getTick() {
+        return clock.currentTick();
+    }
+
+    public int getRemainingSeconds() {
+        return remainingSeconds;
+    }
+
+    public boolean isWin() {
+        return isWin;
+    }
+
+    public boolean isLost() {
+        return isLost;
+    }
+
+    public boolean isOver() {
+        return isWin || isLost;
+    }
+
+    private void checkWin() {
+        if (!isOver() && character.getMyScore() >= scoreToWin) {
+            this.isWin = true;
+            listener.won();
+        }
+    }
+
+    private void onTimeout() {
+        if (isOver()) {
+            return;
+        }
+        this.isLost = true;
+        listener.lost();
+    }
+
+    private void onSecond() {
+        this.remainingSeconds = secondsLeft();
+        listener.secondPassed(remainingSeconds);
+    }
+
+    private void onCountdown() {
+        // This timer fires a tick before the one of onSecond, so it works the time out itself,
+        // and it does not beep once more when the time is up
+        int seconds = secondsLeft();
+        if (seconds > 0 && !isOver()) {
+            listener.countdown(seconds);
+        }
+    }
+
+    private int secondsLeft() {
+        return (int) (countDown - clock.currentTick() / TICKS_PER_SECOND);
+    }
+
+    private static long secondsToTicks(double seconds) {
+        return Math.max(0, Math.round(seconds * TICKS_PER_SECOND));
+    }
+}
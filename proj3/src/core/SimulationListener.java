@@ -0,0 +1,72 @@
+package core;
+
+/**
+ * A `SimulationListener` is told about everything that happens in a {@link Simulation}, so
+ * drawing, sound, saving and logging can react to the game without the simulation knowing
+ * about any of them. Every method does nothing by default, so a listener only overrides the
+ * events it cares about.
+ *
+ * The events are delivered on the thread that steps the simulation, while it is stepping.
+ */
+public interface SimulationListener {
+    /**
+     * A listener that ignores every event, for running the simulation on its own.
+     */
+    SimulationListener NONE = new SimulationListener() { };
+
+    /**
+     * The character moved one tile.
+     *
+     * @param deltaX The change in the x-coordinate.
+     * @param deltaY The change in the y-coordinate.
+     */
+    default void moved(int deltaX, int deltaY) {
+    }
+
+    /**
+     * The character picked up a coin. Called after {@link #moved(int, int)} onto the coin.
+     *
+     * @param x     The x-coordinate of the coin.
+     * @param y     The y-coordinate of the coin.
+     * @param score The score after picking it up.
+     */
+    default void coinCollected(int x, int y, int score) {
+    }
+
+    /**
+     * The character tried to move into a wall or off the board and stayed where it was.
+     *
+     * @param x The x-coordinate of the character.
+     * @param y The y-coordinate of the character.
+     */
+    default void collided(int x, int y) {
+    }
+
+    /**
+     * A second of game time went by.
+     *
+     * @param remainingSeconds The time left, in seconds.
+     */
+    default void secondPassed(int remainingSeconds) {
+    }
+
+    /**
+     * A second of the final countdown went by.
+     *
+     * @param remainingSeconds The time left, in seconds.
+     */
+    default void countdown(int remainingSeconds) {
+    }
+
+    /**
+     * Every coin was collected in time.
+     */
+    default void won() {
+    }
+
+    /**
+     * The time ran out.
+     */
+    default void lost() {
+    }
+}
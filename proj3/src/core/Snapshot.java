@@ -1,7 +1,5 @@
 package core;
 
-import java.util.HashSet;
-
 /**
  * The `Snapshot` class represents a snapshot of the game state, capturing key elements
  * such as the game seed, character location, and optional flower locations.
@@ -14,7 +12,7 @@ import java.util.HashSet;
 public class Snapshot {
     private long seed;
     private int playerScore;
-    private HashSet<Point> collectibles;
+    private PointSet collectibles;
     private Point charLocation;
     private double timeLeft;
 
@@ -29,11 +27,35 @@ public class Snapshot {
         this.charLocation = charLocation;
         this.playerScore = playerScore;
         this.timeLeft = timeLeft;
-        this.collectibles = new HashSet<>();
+        this.collectibles = new PointSet();
     }
 
-    public void addCollectible(Point point) {
-        this.collectibles.add(point);
+    /**
+     * Constructs a new `Snapshot` object that shares a set of collected coins. The set is
+     * only read, so it should be frozen or at least never changed afterwards.
+     *
+     * @param seed          The seed for generating the game world.
+     * @param charLocation  The location of the main character in the game.
+     * @param playerScore   The score of the player.
+     * @param timeLeft      The seconds left on the timer.
+     * @param collectibles  The locations of the collected coins.
+     */
+    public Snapshot(long seed, Point charLocation, int playerScore, double timeLeft, PointSet collectibles) {
+        this.seed = seed;
+        this.charLocation = charLocation;
+        this.playerScore = playerScore;
+        this.timeLeft = timeLeft;
+        this.collectibles = collectibles;
+    }
+
+    /**
+     * Adds a collected coin to the snapshot.
+     *
+     * @param x The x-coordinate of the coin.
+     * @param y The y-coordinate of the coin.
+     */
+    public void addCollectible(int x, int y) {
+        this.collectibles.add(x, y);
     }
 
     /**
@@ -62,7 +84,7 @@ public class Snapshot {
         return this.timeLeft;
     }
 
-    public HashSet<Point> getCollectibles() {
+    public PointSet getCollectibles() {
         return this.collectibles;
     }
 }
@@ -1,6 +1,10 @@
 package core;
 
 import tileengine.TETile;
+import tileengine.TilePalette;
+import tileengine.Tileset;
+
+import java.util.Random;
 
 
 /**
@@ -16,6 +20,7 @@ public class Theme {
     private TETile BACKGROUND;
     private TETile CHARACTER;
     private TETile CHARACTERTWO;
+    private TilePalette palette;
 
     /**
      * Constructs a new Theme with specified tiles for the wall, floor, and background.
@@ -30,6 +35,53 @@ public class Theme {
         this.BACKGROUND = background;
         this.CHARACTER = character;
         this.CHARACTERTWO = character2;
+        this.palette = new TilePalette();
+        palette.add(background, TilePalette.OPAQUE);
+        palette.add(floor, TilePalette.WALKABLE);
+        palette.add(wall, TilePalette.OBSTACLE | TilePalette.OPAQUE);
+        palette.add(character, 0);
+        palette.add(character2, 0);
+        palette.add(Tileset.COIN_ICON, TilePalette.WALKABLE | TilePalette.COLLECTIBLE);
+    }
+
+    /**
+     * Creates the themes the game picks from, the same set for the windowed game and for
+     * headless runs.
+     *
+     * @return A new array of the default themes.
+     */
+    public static Theme[] defaultThemes() {
+        final Theme necromancerTheme1 = new Theme(Tileset.WALL, Tileset.FLOOR,
+                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
+
+        final Theme necromancerTheme2 = new Theme(Tileset.WALL_ORANGE, Tileset.FLOOR_ORANGE,
+                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
+
+        final Theme necromancerTheme3 = new Theme(Tileset.WALL_YELLOW, Tileset.FLOOR_YELLOW,
+                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
+
+        final Theme necromancerTheme4 = new Theme(Tileset.WALL_GREEN, Tileset.FLOOR_GREEN,
+                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
+
+        final Theme necromancerTheme5 = new Theme(Tileset.WALL_BLUE, Tileset.FLOOR_BLUE,
+                Tileset.NOTHING, Tileset.NECROMANCER, Tileset.NECROMANCER_STOP);
+
+        final Theme necromancerTheme6 = new Theme(Tileset.WALL_PINK, Tileset.FLOOR_PINK,
+            Tileset.NOTHING, Tileset.AVATAR, Tileset.AVATAR);
+
+        return new Theme[]{necromancerTheme1, necromancerTheme2, necromancerTheme3,
+                              necromancerTheme4, necromancerTheme5, necromancerTheme6};
+    }
+
+    /**
+     * Picks the theme of the world generated from a seed, so a seed always looks the same.
+     *
+     * @param themes The themes to pick from.
+     * @param seed   The seed of the world.
+     * @return One of the given themes.
+     */
+    public static Theme forSeed(Theme[] themes, long seed) {
+        return themes[new Random(seed).nextInt(themes.length)]; // bound exclusive
     }
 
     /**
@@ -66,4 +118,14 @@ public class Theme {
     public TETile getCharacter2() {
         return CHARACTERTWO;
     }
+
+    /**
+     * Retrieves the palette of every tile a world of this theme can contain,
+     * together with the walkable, obstacle, collectible and opaque property of each tile.
+     *
+     * @return The palette of this theme.
+     */
+    public TilePalette getPalette() {
+        return palette;
+    }
 }
@@ -1,6 +1,8 @@
 package core;
 
 import tileengine.TETile;
+import tileengine.TileGrid;
+import tileengine.TilePalette;
 import tileengine.Tileset;
 
 /**
@@ -11,13 +13,14 @@ import tileengine.Tileset;
  * @since Apr 15 2025
  */
 public class World {
-    private TETile[][] board;
+    private TileGrid board;
     private Character character;
     private Character enemy;
     private Theme theme;
     private RoomPlot plotter;
     private Board testBoard;
     private int totalNumCoins;
+    private Layout layout;
     private static final TETile COLLECTIBLE = Tileset.COIN_ICON;
 
     /**
@@ -32,25 +35,121 @@ public class World {
         plotter = new RoomPlot(testBoard, seed, theme);
         plotter.plotRooms();
         plotter.createHallways();
+        int hallwayTiles = countHallwayTiles();
         this.totalNumCoins = plotter.getRandomNumberOfCoins();
         Point charLocation = plotter.getCharacterLocation();
         this.character = new Character(theme.getCharacter(), theme.getCharacter2(),
                 testBoard, charLocation.x(), charLocation.y(), theme.getFloor(),
                 theme.getWall(), COLLECTIBLE);
         this.dropCoins(totalNumCoins);
-        this.board = testBoard.getTiles();
+        this.board = testBoard.getGrid();
+        this.layout = new Layout(board.toIndices(), charLocation, totalNumCoins, torchLocations(),
+                testBoard.getRooms().size(), hallwayTiles);
+    }
+
+    /**
+     * Constructs a new World from the layout of a world generated earlier with the same theme,
+     * without generating it again. The tiles of the layout are shared, and this world only
+     * keeps the tiles that changed since.
+     *
+     * @param layout The layout of the generated world.
+     * @param theme  The theme the layout was generated with.
+     */
+    public World(Layout layout, Theme theme) {
+        this.theme = theme;
+        this.layout = layout;
+        this.totalNumCoins = layout.totalNumCoins;
+
+        testBoard = new Board(theme, layout.tiles);
+        this.character = new Character(theme.getCharacter(), theme.getCharacter2(),
+                testBoard, layout.charLocation.x(), layout.charLocation.y(), theme.getFloor(),
+                theme.getWall(), COLLECTIBLE);
+        this.board = testBoard.getGrid();
+    }
+
+    /**
+     * Gets the layout of this world as it was generated, before anything moved or was collected.
+     *
+     * @return The layout, which never changes.
+     */
+    public Layout getLayout() {
+        return layout;
     }
 
     public int getTotalNumCoins() {
         return totalNumCoins;
     }
 
+    /**
+     * Gets the number of rooms in the world, not counting hallways.
+     *
+     * @return The number of rooms.
+     */
+    public int getNumRooms() {
+        return layout.numRooms;
+    }
+
+    /**
+     * Gets the number of floor tiles in the hallways, which is how long the tree of hallways
+     * connecting the rooms is.
+     *
+     * @return The number of hallway floor tiles, not counting the floor inside rooms.
+     */
+    public int getHallwayTiles() {
+        return layout.hallwayTiles;
+    }
+
+    /**
+     * Counts the floor tiles outside the floor of every room, which are the hallways and the
+     * small joints they bend around. Called before coins or the character are placed.
+     */
+    private int countHallwayTiles() {
+        TileGrid grid = testBoard.getGrid();
+        PointSet roomFloor = new PointSet(grid.width(), grid.height());
+        for (Room room : testBoard.getRooms()) {
+            for (int x = room.getStartX() + 1; x < room.getStartX() + room.getLength() - 1; x++) {
+                for (int y = room.getStartY() + 1; y < room.getStartY() + room.getHeight() - 1; y++) {
+                    roomFloor.add(x, y);
+                }
+            }
+        }
+        int count = 0;
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                if (grid.has(x, y, TilePalette.WALKABLE) && !roomFloor.contains(x, y)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the positions of the torches that light the world in dark mode, one in the middle of
+     * every room.
+     *
+     * @return The positions of the torches, which never change.
+     */
+    public PointSet getTorchLocations() {
+        return layout.torches;
+    }
+
+    private PointSet torchLocations() {
+        PointSet torches = new PointSet(board.width(), board.height());
+        for (Room room : testBoard.getRooms()) {
+            Point middle = room.getMiddle();
+            torches.add(middle.x(), middle.y());
+        }
+        torches.freeze();
+        return torches;
+    }
+
     private void dropCoins(int count) {
         int i = 0;
         while (i < count) {
             Point coinLocation = plotter.getRandomCoinLocation();
-            if (testBoard.getTiles()[coinLocation.x()][coinLocation.y()] == theme.getFloor()) {
-                testBoard.getTiles()[coinLocation.x()][coinLocation.y()] = COLLECTIBLE;
+            if (testBoard.getTile(coinLocation.x(), coinLocation.y()) == theme.getFloor()) {
+                testBoard.setTiles(coinLocation.x(), coinLocation.y(), COLLECTIBLE);
                 i++;
             }
         }
@@ -58,10 +157,20 @@ public class World {
 
     /**
      * Gets the TETile board representing the game world that has rooms, hallways and a character.
+     * The returned array is a copy, so changes to it do not affect the world.
      *
      * @return The TETile board.
      */
     public TETile[][] getTiles() {
+        return board.toTiles();
+    }
+
+    /**
+     * Gets the palette-indexed grid representing the game world that has rooms, hallways and a character.
+     *
+     * @return The grid of tiles.
+     */
+    public TileGrid getGrid() {
         return board;
     }
 
@@ -77,8 +186,114 @@ public class World {
      * @param y the new y position of the character
      */
     public void modifyCharacterLocation(int x, int y) {
-        this.getTiles()[character.getLocation().x()][character.getLocation().y()] = theme.getFloor();
-        this.getTiles()[x][y] = theme.getCharacter();
+        testBoard.setTiles(character.getLocation().x(), character.getLocation().y(), theme.getFloor());
+        testBoard.setTiles(x, y, theme.getCharacter());
         this.character.setLocation(x, y);
     }
+
+    /**
+     * Puts the world back the way it was generated: every coin is back and a new character
+     * stands on the starting position. This takes time in the number of tiles that changed,
+     * so restarting a world is much cheaper than making a new one.
+     *
+     * @throws IllegalStateException If the world was not created from a layout.
+     */
+    public void reset() {
+        testBoard.resetTiles();
+        this.character = new Character(theme.getCharacter(), theme.getCharacter2(),
+                testBoard, layout.charLocation.x(), layout.charLocation.y(), theme.getFloor(),
+                theme.getWall(), COLLECTIBLE);
+    }
+
+    /**
+     * Puts the world in the state of a saved game: the coins collected are gone, and the
+     * character has the saved score and stands on the saved position. The world must not have
+     * changed since it was generated or reset. A save that does not fit this world, with a
+     * collected coin where the world has none or the character off the floor, is not restored.
+     *
+     * @param snapshot The saved game, of the seed this world was generated from.
+     * @return True if the save was restored, false if it does not match the world, in which
+     *         case the world is left as it was.
+     */
+    public boolean restore(Snapshot snapshot) {
+        if (!matches(snapshot)) {
+            return false;
+        }
+        PointSet collected = snapshot.getCollectibles();
+        for (int cell = collected.nextCell(0); cell >= 0; cell = collected.nextCell(cell + 1)) {
+            character.addCollectible(collected.xOf(cell), collected.yOf(cell));
+            hideCollectibleTile(collected.xOf(cell), collected.yOf(cell));
+        }
+        character.updateMyScore(snapshot.getScore());
+        modifyCharacterLocation(snapshot.getCharLocation().x(), snapshot.getCharLocation().y());
+        return true;
+    }
+
+    /**
+     * Checks a saved game against the tiles of this world as generated: every collected coin
+     * must be on a coin, and the character on a walkable tile or its own starting position.
+     */
+    private boolean matches(Snapshot snapshot) {
+        PointSet collected = snapshot.getCollectibles();
+        if (collected.size() > totalNumCoins) {
+            return false;
+        }
+        for (int cell = collected.nextCell(0); cell >= 0; cell = collected.nextCell(cell + 1)) {
+            int x = collected.xOf(cell);
+            int y = collected.yOf(cell);
+            if (x >= board.width() || y >= board.height() || !board.has(x, y, TilePalette.COLLECTIBLE)) {
+                return false;
+            }
+        }
+        int x = snapshot.getCharLocation().x();
+        int y = snapshot.getCharLocation().y();
+        if (x < 0 || y < 0 || x >= board.width() || y >= board.height()) {
+            return false;
+        }
+        Point start = character.getLocation();
+        return board.has(x, y, TilePalette.WALKABLE) || (x == start.x() && y == start.y());
+    }
+
+    /**
+     * Replaces a collectible with a floor tile, for coins that were already collected.
+     *
+     * @param x the x position of the collectible
+     * @param y the y position of the collectible
+     */
+    public void hideCollectibleTile(int x, int y) {
+        testBoard.setTiles(x, y, theme.getFloor());
+    }
+
+    /**
+     * The tiles, character location, number of coins, torches, number of rooms and hallway length
+     * of a freshly generated world.
+     * A layout never changes, so it can be shared by any number of worlds.
+     */
+    public static class Layout {
+        private final byte[] tiles;
+        private final Point charLocation;
+        private final int totalNumCoins;
+        private final PointSet torches;
+        private final int numRooms;
+        private final int hallwayTiles;
+
+        Layout(byte[] tiles, Point charLocation, int totalNumCoins, PointSet torches,
+               int numRooms, int hallwayTiles) {
+            this.tiles = tiles;
+            this.charLocation = new Point(charLocation.x(), charLocation.y());
+            this.totalNumCoins = totalNumCoins;
+            this.torches = torches;
+            this.numRooms = numRooms;
+            this.hallwayTiles = hallwayTiles;
+        }
+
+        /**
+         * Gets the approximate number of bytes the layout takes in memory.
+         *
+         * @return The size in bytes.
+         */
+        public int sizeInBytes() {
+            return tiles.length + tiles.length / 8 + 128;
+        }
+    }
 }
@@ -0,0 +1,127 @@
+package core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The `WorldCache` class remembers the layouts of recently generated worlds, so playing a
+ * seed again, restarting or loading a save skips world generation.
+ *
+ * Layouts are keyed by seed and theme, and the least recently used ones are evicted once the
+ * cache holds more than its memory budget. Every call to {@link #newWorld(long, Theme)}
+ * returns a fresh world, so a session can change its world without touching the cached layout.
+ */
+public class WorldCache {
+    private final long budgetBytes;
+    private final LinkedHashMap<Key, World.Layout> layouts = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a new empty `WorldCache`.
+     *
+     * @param budgetBytes The maximum number of bytes the cached layouts may take.
+     */
+    public WorldCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Creates a world for the seed and theme, from the cached layout if there is one.
+     *
+     * @param seed  The seed of the world.
+     * @param theme The theme of the world.
+     * @return A new world that the caller may change freely, and put back with {@link World#reset()}.
+     */
+    public World newWorld(long seed, Theme theme) {
+        Key key = new Key(seed, theme);
+        World.Layout layout;
+        synchronized (this) {
+            layout = layouts.get(key);
+            if (layout != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (layout != null) {
+            return new World(layout, theme);
+        }
+
+        // The generated world is only kept for its layout, so that the world handed out has
+        // its tiles in an overlay and can be reset like any other
+        World.Layout generated = new World(seed, theme).getLayout();
+        put(key, generated);
+        return new World(generated, theme);
+    }
+
+    private synchronized void put(Key key, World.Layout layout) {
+        World.Layout previous = layouts.put(key, layout);
+        if (previous != null) {
+            usedBytes -= previous.sizeInBytes();
+        }
+        usedBytes += layout.sizeInBytes();
+
+        Iterator<World.Layout> eldest = layouts.values().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().sizeInBytes();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Gets the number of worlds that were created from a cached layout.
+     *
+     * @return The number of cache hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of worlds that had to be generated.
+     *
+     * @return The number of cache misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of layouts in the cache.
+     *
+     * @return The number of cached layouts.
+     */
+    public synchronized int size() {
+        return layouts.size();
+    }
+
+    /**
+     * A seed and the theme it was generated with. Themes are compared by identity.
+     */
+    private static class Key {
+        private final long seed;
+        private final Theme theme;
+
+        Key(long seed, Theme theme) {
+            this.seed = seed;
+            this.theme = theme;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return seed == other.seed && theme == other.theme;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(seed) * 31 + System.identityHashCode(theme);
+        }
+    }
+}
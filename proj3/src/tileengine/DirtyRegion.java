@@ -0,0 +1,126 @@
+package tileengine;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A DirtyRegion remembers which cells of a world changed since the last frame was
+ * presented, so that the TERenderer only has to look at (and redraw) those cells.
+ *
+ * Cells are recorded once each, in the order they were first marked. Marking every
+ * cell at once with markAll is cheaper than marking them one by one, and is useful
+ * when something other than the tiles themselves changed, such as the dark mode mask.
+ */
+public class DirtyRegion {
+    private final int width;
+    private final int height;
+    private final BitSet marked;
+    private int[] cells;
+    private int size;
+    private boolean allDirty;
+
+    /**
+     * Creates an empty dirty region for a world of the given size.
+     * @param width width of the world in tiles
+     * @param height height of the world in tiles
+     */
+    public DirtyRegion(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.marked = new BitSet(width * height);
+        this.cells = new int[64];
+        this.size = 0;
+        this.allDirty = false;
+    }
+
+    /**
+     * Marks a single cell as changed.
+     * @param x x coordinate
+     * @param y y coordinate
+     */
+    public void mark(int x, int y) {
+        if (allDirty) {
+            return;
+        }
+        int index = y * width + x;
+        if (marked.get(index)) {
+            return;
+        }
+        marked.set(index);
+        if (size == cells.length) {
+            // Past this point listing cells is no cheaper than checking all of them
+            if (size * 2 > width * height) {
+                markAll();
+                return;
+            }
+            cells = Arrays.copyOf(cells, size * 2);
+        }
+        cells[size] = index;
+        size += 1;
+    }
+
+    /**
+     * Marks every cell as changed.
+     */
+    public void markAll() {
+        allDirty = true;
+    }
+
+    /**
+     * @return true if every cell has to be checked
+     */
+    public boolean isAllDirty() {
+        return allDirty;
+    }
+
+    /**
+     * @return the number of individually marked cells. Not meaningful if isAllDirty is true.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i position in the list of marked cells, from 0 to size() - 1
+     * @return the x coordinate of the i-th marked cell
+     */
+    public int xAt(int i) {
+        return cells[i] % width;
+    }
+
+    /**
+     * @param i position in the list of marked cells, from 0 to size() - 1
+     * @return the y coordinate of the i-th marked cell
+     */
+    public int yAt(int i) {
+        return cells[i] / width;
+    }
+
+    /**
+     * @return the width of the world this region covers
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return the height of the world this region covers
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Forgets every marked cell, usually right after a frame was presented.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i += 1) {
+            marked.clear(cells[i]);
+        }
+        if (allDirty) {
+            marked.clear();
+        }
+        size = 0;
+        allDirty = false;
+    }
+}
@@ -0,0 +1,67 @@
+package tileengine;
+
+/**
+ * A single keyboard or mouse event read from an InputQueue. Events are copied into an
+ * InputEvent owned by the reader, so the same object can be reused for every event and
+ * reading input does not allocate.
+ */
+public class InputEvent {
+    public static final int KEY_TYPED = 1;
+    public static final int MOUSE_CLICKED = 2;
+
+    private int type;
+    private char key;
+    private double x;
+    private double y;
+    private long timestamp;
+
+    void set(int eventType, char eventKey, double eventX, double eventY, long eventTimestamp) {
+        this.type = eventType;
+        this.key = eventKey;
+        this.x = eventX;
+        this.y = eventY;
+        this.timestamp = eventTimestamp;
+    }
+
+    /**
+     * @return the kind of event, KEY_TYPED or MOUSE_CLICKED
+     */
+    public int type() {
+        return type;
+    }
+
+    /**
+     * @return the typed character, for KEY_TYPED events
+     */
+    public char key() {
+        return key;
+    }
+
+    /**
+     * @return the x coordinate of the mouse in tiles, for MOUSE_CLICKED events
+     */
+    public double x() {
+        return x;
+    }
+
+    /**
+     * @return the y coordinate of the mouse in tiles, for MOUSE_CLICKED events
+     */
+    public double y() {
+        return y;
+    }
+
+    /**
+     * @return the System.nanoTime() at which the window received the event
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return how long ago the window received the event, in nanoseconds
+     */
+    public long latencyNanos() {
+        return System.nanoTime() - timestamp;
+    }
+}
@@ -0,0 +1,146 @@
+package tileengine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded, lock-free queue of input events between exactly one producer thread (the AWT
+ * event thread of the window) and exactly one consumer thread (the game thread).
+ *
+ * Events are stored field by field in preallocated ring buffers, so neither side allocates
+ * or takes a lock. The producer only writes the tail and the consumer only writes the head;
+ * each publishes its index with a release store that the other side reads. If the game falls
+ * so far behind that the ring is full, new events are dropped and counted.
+ *
+ * The consumer can either poll once per tick or block in await until an event arrives, for
+ * screens that have nothing to do but wait for a key.
+ */
+public class InputQueue {
+    private static final int DEFAULT_CAPACITY = 256;
+    private final int mask;
+    private final int[] types;
+    private final char[] keys;
+    private final double[] xs;
+    private final double[] ys;
+    private final long[] timestamps;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private volatile Thread waiter;
+    private volatile long dropped;
+
+    /**
+     * Creates a queue with room for 256 pending events.
+     */
+    public InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a queue with room for the given number of pending events.
+     * @param capacity number of events the queue can hold, rounded up to a power of two
+     */
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.types = new int[size];
+        this.keys = new char[size];
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.timestamps = new long[size];
+    }
+
+    /**
+     * Records a typed key. Must only be called from the producer thread.
+     * @param key the typed character
+     * @return false if the queue was full and the event was dropped
+     */
+    public boolean offerKey(char key) {
+        return offer(InputEvent.KEY_TYPED, key, 0, 0);
+    }
+
+    /**
+     * Records a mouse click. Must only be called from the producer thread.
+     * @param x x coordinate of the mouse, in tiles
+     * @param y y coordinate of the mouse, in tiles
+     * @return false if the queue was full and the event was dropped
+     */
+    public boolean offerClick(double x, double y) {
+        return offer(InputEvent.MOUSE_CLICKED, '\0', x, y);
+    }
+
+    private boolean offer(int type, char key, double x, double y) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped += 1;
+            return false;
+        }
+        int slot = (int) t & mask;
+        types[slot] = type;
+        keys[slot] = key;
+        xs[slot] = x;
+        ys[slot] = y;
+        timestamps[slot] = System.nanoTime();
+        tail.lazySet(t + 1);
+
+        Thread w = waiter;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        return true;
+    }
+
+    /**
+     * Takes the oldest pending event, if any. Must only be called from the consumer thread.
+     * @param out the event to copy the oldest pending event into
+     * @return true if an event was copied into out, false if the queue was empty
+     */
+    public boolean poll(InputEvent out) {
+        long h = head.get();
+        if (h == tail.get()) {
+            return false;
+        }
+        int slot = (int) h & mask;
+        out.set(types[slot], keys[slot], xs[slot], ys[slot], timestamps[slot]);
+        head.lazySet(h + 1);
+        return true;
+    }
+
+    /**
+     * @return true if no events are pending
+     */
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    /**
+     * Parks the consumer thread until an event is pending, the timeout passes or the
+     * thread is interrupted. Must only be called from the consumer thread.
+     * @param timeoutNanos the longest time to wait, in nanoseconds
+     * @return true if an event is pending
+     */
+    public boolean await(long timeoutNanos) {
+        if (!isEmpty()) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        waiter = Thread.currentThread();
+        try {
+            long remaining = timeoutNanos;
+            // Checking again after publishing the waiter makes sure a wakeup is not missed
+            while (isEmpty() && remaining > 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        } finally {
+            waiter = null;
+        }
+        return !isEmpty();
+    }
+
+    /**
+     * @return the number of events dropped because the queue was full
+     */
+    public long dropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,194 @@
+package tileengine;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Toolkit;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * A rendering backend that draws straight into a BufferedImage backbuffer with Java2D and
+ * copies it to its own window once per frame. Tiles are drawn by copying their cached
+ * sprites (see TileSprites), so a full frame costs one image copy per tile instead of
+ * several StdDraw calls with coordinate scaling.
+ *
+ * Drawing happens on the game thread, into a backbuffer nothing else reads. show copies the
+ * backbuffer into a front buffer under a lock, and the window only ever paints the front
+ * buffer, under the same lock, so a repaint never shows a half-drawn frame. The backbuffer
+ * is copied rather than swapped because the renderer only redraws the tiles that changed and
+ * needs the rest of the previous frame to stay in place.
+ */
+public class Java2DBackend implements RenderBackend {
+    private static final Font DEFAULT_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private final Object frameLock = new Object();
+    private int tileSize;
+    private int heightPixels;
+    private BufferedImage backbuffer;
+    private BufferedImage frontbuffer;
+    private Graphics2D front;
+    private Graphics2D g;
+    private Canvas canvas;
+    private volatile double mouseX;
+    private volatile double mouseY;
+    private volatile InputQueue input;
+
+    @Override
+    public void initialize(int width, int height, int tileSize) {
+        this.tileSize = tileSize;
+        this.heightPixels = height * tileSize;
+        this.backbuffer = new BufferedImage(width * tileSize, heightPixels, BufferedImage.TYPE_INT_RGB);
+        this.frontbuffer = new BufferedImage(width * tileSize, heightPixels, BufferedImage.TYPE_INT_RGB);
+        this.front = frontbuffer.createGraphics();
+        this.g = backbuffer.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(DEFAULT_FONT);
+        clear(Color.BLACK);
+        try {
+            SwingUtilities.invokeAndWait(() -> openWindow(width * tileSize, heightPixels));
+        } catch (InterruptedException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not open the game window", e);
+        }
+        show();
+    }
+
+    private void openWindow(int widthPixels, int heightPx) {
+        canvas = new Canvas() {
+            @Override
+            public void paint(Graphics graphics) {
+                synchronized (frameLock) {
+                    graphics.drawImage(frontbuffer, 0, 0, null);
+                }
+            }
+
+            @Override
+            public void update(Graphics graphics) {
+                // Skip the default background fill, the frame covers the whole canvas
+                paint(graphics);
+            }
+        };
+        canvas.setPreferredSize(new Dimension(widthPixels, heightPx));
+        canvas.setFocusable(true);
+        canvas.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyTyped(KeyEvent e) {
+                InputQueue queue = input;
+                if (queue != null) {
+                    queue.offerKey(e.getKeyChar());
+                }
+            }
+        });
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                mouseX = e.getX() / (double) tileSize;
+                mouseY = (heightPixels - e.getY()) / (double) tileSize;
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                mouseMoved(e);
+                InputQueue queue = input;
+                if (queue != null) {
+                    queue.offerClick(mouseX, mouseY);
+                }
+            }
+        };
+        canvas.addMouseListener(mouse);
+        canvas.addMouseMotionListener(mouse);
+
+        JFrame frame = new JFrame();
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.setResizable(false);
+        frame.add(canvas);
+        frame.pack();
+        frame.setVisible(true);
+        canvas.requestFocus();
+    }
+
+    @Override
+    public void clear(Color color) {
+        g.setColor(color);
+        g.fillRect(0, 0, backbuffer.getWidth(), backbuffer.getHeight());
+    }
+
+    @Override
+    public void drawTile(TETile tile, int x, int y) {
+        tile.draw(g, x * tileSize, heightPixels - (y + 1) * tileSize);
+    }
+
+    @Override
+    public void setPenColor(Color color) {
+        g.setColor(color);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        g.setFont(font);
+    }
+
+    @Override
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight) {
+        int left = (int) Math.round((x - halfWidth) * tileSize);
+        int top = (int) Math.round(heightPixels - (y + halfHeight) * tileSize);
+        int w = (int) Math.round(2 * halfWidth * tileSize);
+        int h = (int) Math.round(2 * halfHeight * tileSize);
+        g.fillRect(left, top, w, h);
+    }
+
+    @Override
+    public void text(double x, double y, String text) {
+        FontMetrics metrics = g.getFontMetrics();
+        // Same placement as StdDraw.text: centered horizontally, baseline a descent below the center
+        float px = (float) (x * tileSize - metrics.stringWidth(text) / 2.0);
+        float py = (float) (heightPixels - y * tileSize + metrics.getDescent());
+        g.drawString(text, px, py);
+    }
+
+    @Override
+    public void show() {
+        synchronized (frameLock) {
+            front.drawImage(backbuffer, 0, 0, null);
+        }
+        Canvas target = canvas;
+        if (target == null) {
+            return;
+        }
+        Graphics screen = target.getGraphics();
+        if (screen == null) {
+            return;
+        }
+        synchronized (frameLock) {
+            screen.drawImage(frontbuffer, 0, 0, null);
+        }
+        screen.dispose();
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    @Override
+    public void attachInput(InputQueue queue) {
+        this.input = queue;
+    }
+
+    @Override
+    public double mouseX() {
+        return mouseX;
+    }
+
+    @Override
+    public double mouseY() {
+        return mouseY;
+    }
+}
@@ -0,0 +1,131 @@
+package tileengine;
+
+import java.util.Arrays;
+
+/**
+ * An OverlayTileGrid is a TileGrid made of two layers: a base array of palette indices that
+ * is never written, and a sparse overlay that holds only the cells changed since.
+ *
+ * The base can be shared by any number of grids, on any number of threads, for example by
+ * every session playing the same generated world. Resetting the grid and listing the changed
+ * cells take time in the number of changed cells, not the size of the grid.
+ *
+ * The overlay is a small open-addressing hash table from cell number to palette index.
+ */
+public class OverlayTileGrid extends TileGrid {
+    private static final int INITIAL_CAPACITY = 16;
+    private final byte[] base;
+    private int[] keys;         // cell number + 1, 0 for an empty slot
+    private byte[] values;
+    private int size;
+
+    /**
+     * Creates a grid on top of a base array of palette indices.
+     * @param width number of columns
+     * @param height number of rows
+     * @param palette palette the cells index into
+     * @param base width * height palette indices, row by row, which must never change
+     */
+    public OverlayTileGrid(int width, int height, TilePalette palette, byte[] base) {
+        super(width, height, palette);
+        if (base.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " cells, got " + base.length);
+        }
+        this.base = base;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new byte[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Drops every change, so the grid shows its base again. The cells that go back are
+     * reported to the dirty region.
+     */
+    public void reset() {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                markChanged(keys[slot] - 1);
+            }
+        }
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new byte[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Lists the cells that differ from the base.
+     * @return the cell numbers, y * width + x, in ascending order
+     */
+    public int[] changedCells() {
+        int[] changed = new int[size];
+        int count = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            int i = keys[slot] - 1;
+            if (i >= 0 && values[slot] != base[i]) {
+                changed[count++] = i;
+            }
+        }
+        int[] result = Arrays.copyOf(changed, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    protected byte cellAt(int i) {
+        if (size == 0) {
+            return base[i];
+        }
+        int slot = find(i);
+        return keys[slot] != 0 ? values[slot] : base[i];
+    }
+
+    @Override
+    protected void storeCell(int i, byte index) {
+        int slot = find(i);
+        if (keys[slot] == 0) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = find(i);
+            }
+            keys[slot] = i + 1;
+            size++;
+        }
+        values[slot] = index;
+    }
+
+    @Override
+    public byte[] toIndices() {
+        byte[] indices = base.clone();
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                indices[keys[slot] - 1] = values[slot];
+            }
+        }
+        return indices;
+    }
+
+    /**
+     * @return the slot holding cell i, or the empty slot where it would go
+     */
+    private int find(int i) {
+        int mask = keys.length - 1;
+        int slot = (i * 0x9E3779B1) >>> 16 & mask;
+        while (keys[slot] != 0 && keys[slot] != i + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        byte[] oldValues = values;
+        this.keys = new int[oldKeys.length * 2];
+        this.values = new byte[oldKeys.length * 2];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != 0) {
+                int newSlot = find(oldKeys[slot] - 1);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package tileengine;
+
+import java.awt.Color;
+import java.awt.Font;
+
+/**
+ * A RenderBackend is the surface the TERenderer draws on. It works in tile units, the same
+ * way StdDraw is set up by TERenderer.initialize: (0, 0) is the bottom left corner of the
+ * window and (width, height) is the top right corner.
+ *
+ * Drawing calls only change the backbuffer. Nothing reaches the screen until show is called,
+ * so a frame is always presented in one piece. The backend also owns the window, so it is
+ * where keyboard and mouse input come from: typed keys and mouse clicks are pushed into an
+ * InputQueue from the window's event thread.
+ */
+public interface RenderBackend {
+    /**
+     * Opens the window.
+     * @param width width of the window in tiles
+     * @param height height of the window in tiles
+     * @param tileSize size of a tile in pixels
+     */
+    void initialize(int width, int height, int tileSize);
+
+    /**
+     * Fills the whole backbuffer with a color.
+     * @param color the color to fill with
+     */
+    void clear(Color color);
+
+    /**
+     * Draws a tile with its lower left corner at (x, y).
+     * @param tile the tile to draw
+     * @param x x coordinate, in tiles
+     * @param y y coordinate, in tiles
+     */
+    void drawTile(TETile tile, int x, int y);
+
+    /**
+     * Sets the color used by filledRectangle and text.
+     * @param color the new pen color
+     */
+    void setPenColor(Color color);
+
+    /**
+     * Sets the font used by text.
+     * @param font the new font
+     */
+    void setFont(Font font);
+
+    /**
+     * Fills a rectangle with the pen color.
+     * @param x x coordinate of the center
+     * @param y y coordinate of the center
+     * @param halfWidth half of the width
+     * @param halfHeight half of the height
+     */
+    void filledRectangle(double x, double y, double halfWidth, double halfHeight);
+
+    /**
+     * Writes text centered on (x, y) with the pen color and font.
+     * @param x x coordinate of the center
+     * @param y y coordinate of the center
+     * @param text the text to write
+     */
+    void text(double x, double y, String text);
+
+    /**
+     * Copies the backbuffer to the screen.
+     */
+    void show();
+
+    /**
+     * Starts sending typed keys and mouse clicks from the window to the given queue. The
+     * queue must only be fed from the window's event thread.
+     * @param queue the queue to send input events to
+     */
+    void attachInput(InputQueue queue);
+
+    /**
+     * @return the x coordinate of the mouse, in tiles
+     */
+    double mouseX();
+
+    /**
+     * @return the y coordinate of the mouse, in tiles
+     */
+    double mouseY();
+}
@@ -0,0 +1,122 @@
+package tileengine;
+
+import edu.princeton.cs.algs4.DrawListener;
+import edu.princeton.cs.algs4.StdDraw;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.lang.reflect.Field;
+
+/**
+ * The original rendering backend, which draws everything through the StdDraw window.
+ *
+ * StdDraw only draws images given by file name, looking the file up on every call, and
+ * draws every glyph with its own text call. Tiles are therefore copied from their cached
+ * sprites (see TileSprites) straight onto the graphics StdDraw draws its frames into, the
+ * same way Java2DBackend draws them. If that graphics cannot be reached, tiles fall back
+ * to being drawn with StdDraw calls.
+ */
+public class StdDrawBackend implements RenderBackend {
+    private int tileSize;
+    private int heightPixels;
+    private Graphics2D offscreen;
+
+    @Override
+    public void initialize(int width, int height, int tileSize) {
+        this.tileSize = tileSize;
+        this.heightPixels = height * tileSize;
+        StdDraw.setCanvasSize(width * tileSize, height * tileSize);
+        StdDraw.setXscale(0, width);
+        StdDraw.setYscale(0, height);
+        StdDraw.clear(new Color(0, 0, 0));
+        StdDraw.enableDoubleBuffering();
+        StdDraw.show();
+        // setCanvasSize makes a new offscreen graphics, so look it up afterwards
+        this.offscreen = offscreenGraphics();
+    }
+
+    /**
+     * Finds the graphics StdDraw draws into before show copies it to the window, or returns
+     * null if this version of StdDraw does not have one.
+     */
+    private static Graphics2D offscreenGraphics() {
+        try {
+            Field field = StdDraw.class.getDeclaredField("offscreen");
+            field.setAccessible(true);
+            Object graphics = field.get(null);
+            return graphics instanceof Graphics2D ? (Graphics2D) graphics : null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void clear(Color color) {
+        StdDraw.clear(color);
+    }
+
+    @Override
+    public void drawTile(TETile tile, int x, int y) {
+        if (offscreen != null) {
+            tile.draw(offscreen, x * tileSize, heightPixels - (y + 1) * tileSize);
+        } else {
+            tile.draw(x, y);
+        }
+    }
+
+    @Override
+    public void setPenColor(Color color) {
+        StdDraw.setPenColor(color);
+    }
+
+    @Override
+    public void setFont(Font font) {
+        StdDraw.setFont(font);
+    }
+
+    @Override
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight) {
+        StdDraw.filledRectangle(x, y, halfWidth, halfHeight);
+    }
+
+    @Override
+    public void text(double x, double y, String text) {
+        StdDraw.text(x, y, text);
+    }
+
+    @Override
+    public void show() {
+        StdDraw.show();
+        // StdDraw keeps its own unbounded list of typed keys next to the listeners; input is
+        // read from the InputQueue instead, so empty that list to keep it from growing
+        while (StdDraw.hasNextKeyTyped()) {
+            StdDraw.nextKeyTyped();
+        }
+    }
+
+    @Override
+    public void attachInput(InputQueue queue) {
+        StdDraw.addListener(new DrawListener() {
+            @Override
+            public void keyTyped(char c) {
+                queue.offerKey(c);
+            }
+
+            @Override
+            public void mouseClicked(double x, double y) {
+                queue.offerClick(x, y);
+            }
+        });
+    }
+
+    @Override
+    public double mouseX() {
+        return StdDraw.mouseX();
+    }
+
+    @Override
+    public double mouseY() {
+        return StdDraw.mouseY();
+    }
+}
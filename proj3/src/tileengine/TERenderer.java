@@ -1,7 +1,5 @@
 package tileengine;
 
-import edu.princeton.cs.algs4.StdDraw;
-
 import java.awt.Color;
 import java.awt.Font;
 
@@ -10,13 +8,39 @@ import java.awt.Font;
  * to, but be careful. We strongly recommend getting everything else working before
  * messing with this renderer, unless you're trying to do something fancy like
  * allowing scrolling of the screen or tracking the avatar or something similar.
+ *
+ * The actual drawing is done by a RenderBackend. By default that is StdDraw, but a
+ * Java2DBackend can be passed to the constructor to draw into a BufferedImage instead.
+ * Text, rectangles and input for menus and the HUD also go through the renderer, so the
+ * rest of the game works with either backend.
  */
 public class TERenderer {
-    private static final int TILE_SIZE = 16;
+    static final int TILE_SIZE = 16;
+    static final Font TILE_FONT = new Font("Monaco", Font.BOLD, TILE_SIZE - 2);
+    private static final Font DEFAULT_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private final RenderBackend backend;
+    private final InputQueue input;
     private int width;
     private int height;
     private int xOffset;
     private int yOffset;
+    private TETile[][] lastFrame;
+
+    /**
+     * Creates a renderer that draws with StdDraw.
+     */
+    public TERenderer() {
+        this(new StdDrawBackend());
+    }
+
+    /**
+     * Creates a renderer that draws with the given backend.
+     * @param backend the backend to draw with
+     */
+    public TERenderer(RenderBackend backend) {
+        this.backend = backend;
+        this.input = new InputQueue();
+    }
 
     /**
      * Same functionality as the other initialization method. The only difference is that the xOff
@@ -32,15 +56,9 @@ public class TERenderer {
         this.height = h;
         this.xOffset = xOff;
         this.yOffset = yOff;
-        StdDraw.setCanvasSize(width * TILE_SIZE, height * TILE_SIZE);
+        backend.initialize(width, height, TILE_SIZE);
+        backend.attachInput(input);
         resetFont();
-        StdDraw.setXscale(0, width);
-        StdDraw.setYscale(0, height);
-
-        StdDraw.clear(new Color(0, 0, 0));
-
-        StdDraw.enableDoubleBuffering();
-        StdDraw.show();
     }
 
     /**
@@ -83,9 +101,66 @@ public class TERenderer {
      * @param world the 2D TETile[][] array to render
      */
     public void renderFrame(TETile[][] world) {
-        StdDraw.clear(new Color(0, 0, 0));
+        backend.clear(new Color(0, 0, 0));
         drawTiles(world);
-        StdDraw.show();
+        backend.show();
+        lastFrame = TETile.copyOf(world);
+    }
+
+    /**
+     * Redraws only the cells in the dirty region whose tile differs from the last presented
+     * frame, then shows the result and clears the region. Everything else on the canvas is
+     * left as it was, so any text drawn outside of the world has to be cleared by the caller.
+     *
+     * Falls back to renderFrame if there is no previous frame to compare against, e.g. right
+     * after initialize or invalidate.
+     * @param world the 2D TETile[][] array to render
+     * @param dirty the cells that may have changed since the last frame
+     */
+    public void renderChanges(TETile[][] world, DirtyRegion dirty) {
+        if (lastFrame == null || lastFrame.length != world.length
+                || lastFrame[0].length != world[0].length) {
+            renderFrame(world);
+            dirty.clear();
+            return;
+        }
+        if (dirty.isAllDirty()) {
+            for (int x = 0; x < world.length; x += 1) {
+                for (int y = 0; y < world[0].length; y += 1) {
+                    redrawIfChanged(world, x, y);
+                }
+            }
+        } else {
+            for (int i = 0; i < dirty.size(); i += 1) {
+                redrawIfChanged(world, dirty.xAt(i), dirty.yAt(i));
+            }
+        }
+        dirty.clear();
+        backend.show();
+    }
+
+    /**
+     * Forgets the last presented frame, so the next call to renderChanges redraws everything.
+     * Call this after drawing over the world with something else, like a menu screen.
+     */
+    public void invalidate() {
+        lastFrame = null;
+    }
+
+    private void redrawIfChanged(TETile[][] world, int x, int y) {
+        TETile tile = world[x][y];
+        if (tile == lastFrame[x][y]) {
+            return;
+        }
+        if (tile == null) {
+            throw new IllegalArgumentException("Tile at position x=" + x + ", y=" + y
+                    + " is null.");
+        }
+        // Image tiles may be transparent, so wipe what was drawn in the cell before
+        backend.setPenColor(Color.BLACK);
+        backend.filledRectangle(x + xOffset + 0.5, y + yOffset + 0.5, 0.5, 0.5);
+        backend.drawTile(tile, x + xOffset, y + yOffset);
+        lastFrame[x][y] = tile;
     }
 
     /**
@@ -101,7 +176,7 @@ public class TERenderer {
                     throw new IllegalArgumentException("Tile at position x=" + x + ", y=" + y
                             + " is null.");
                 }
-                world[x][y].draw(x + xOffset, y + yOffset);
+                backend.drawTile(world[x][y], x + xOffset, y + yOffset);
             }
         }
     }
@@ -111,7 +186,97 @@ public class TERenderer {
      * if you changed the pen settings.
      */
     public void resetFont() {
-        Font font = new Font("Monaco", Font.BOLD, TILE_SIZE - 2);
-        StdDraw.setFont(font);
+        backend.setFont(TILE_FONT);
+    }
+
+    /**
+     * Fills the whole screen with a color, e.g. before drawing a menu.
+     * @param color the color to fill with
+     */
+    public void clear(Color color) {
+        backend.clear(color);
+    }
+
+    /**
+     * Sets the color used by filledRectangle and text.
+     * @param color the new pen color
+     */
+    public void setPenColor(Color color) {
+        backend.setPenColor(color);
+    }
+
+    /**
+     * Sets the font used by text.
+     * @param font the new font
+     */
+    public void setFont(Font font) {
+        backend.setFont(font);
+    }
+
+    /**
+     * Sets the font used by text back to the default, like StdDraw.setFont() does.
+     */
+    public void setFont() {
+        backend.setFont(DEFAULT_FONT);
+    }
+
+    /**
+     * Fills a rectangle with the pen color. Coordinates are in tiles.
+     * @param x x coordinate of the center
+     * @param y y coordinate of the center
+     * @param halfWidth half of the width
+     * @param halfHeight half of the height
+     */
+    public void filledRectangle(double x, double y, double halfWidth, double halfHeight) {
+        backend.filledRectangle(x, y, halfWidth, halfHeight);
+    }
+
+    /**
+     * Writes text centered on (x, y) with the pen color and font. Coordinates are in tiles.
+     * @param x x coordinate of the center
+     * @param y y coordinate of the center
+     * @param text the text to write
+     */
+    public void text(double x, double y, String text) {
+        backend.text(x, y, text);
+    }
+
+    /**
+     * Shows everything drawn so far on the screen.
+     */
+    public void show() {
+        backend.show();
+    }
+
+    /**
+     * Takes the oldest key or mouse event that has not been read yet, if there is one.
+     * @param out the event to copy the input into
+     * @return true if an event was copied into out, false if there was no pending input
+     */
+    public boolean pollInput(InputEvent out) {
+        return input.poll(out);
+    }
+
+    /**
+     * Sleeps until there is input to read or the timeout passes.
+     * @param timeoutNanos the longest time to wait, in nanoseconds
+     * @return true if there is input to read
+     */
+    public boolean awaitInput(long timeoutNanos) {
+        return input.await(timeoutNanos);
+    }
+
+    /**
+     * @return the x coordinate of the mouse, in tiles
+     */
+    public double mouseX() {
+        return backend.mouseX();
+    }
+
+    /**
+     * @return the y coordinate of the mouse, in tiles
+     */
+    public double mouseY() {
+        return backend.mouseY();
     }
 }
@@ -1,6 +1,8 @@
 package tileengine;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
 import java.util.Arrays;
 import java.util.Random;
 
@@ -27,6 +29,7 @@ public class TETile {
     private final Color backgroundColor;
     private final String description;
     private final String filepath;
+    private BufferedImage sprite; // cached by sprite(), not part of the tile's value
 
     /**
      * Full constructor for TETile objects.
@@ -82,15 +85,10 @@ public class TETile {
      * @param y y coordinate
      */
     public void draw(double x, double y) {
-        if (filepath != null) {
-            try {
-                StdDraw.picture(x + 0.5, y + 0.5, filepath);
-                System.out.println("picture");
-                return;
-            } catch (IllegalArgumentException e) {
-                // Exception happens because the file can't be found. In this case, fail silently
-                // and just use the character and background color for the tile.
-            }
+        if (filepath != null && TileSprites.image(filepath) != null) {
+            // The image was found and decoded once, so StdDraw will not fail on it
+            StdDraw.picture(x + 0.5, y + 0.5, filepath);
+            return;
         }
 
         StdDraw.setPenColor(backgroundColor);
@@ -99,6 +97,33 @@ public class TETile {
         StdDraw.text(x + 0.5, y + 0.5, Character.toString(character()));
     }
 
+    /**
+     * Draws the tile with its upper left corner at pixel (px, py) by copying its cached
+     * sprite. Like draw, it uses the image at filepath if there is one, and otherwise the
+     * character and color representation.
+     * @param g graphics to draw on
+     * @param px x coordinate of the upper left corner, in pixels
+     * @param py y coordinate of the upper left corner, in pixels
+     */
+    public void draw(Graphics2D g, int px, int py) {
+        BufferedImage image = sprite();
+        // Images are centered on the tile, the same way StdDraw.picture places them
+        g.drawImage(image, px + (TERenderer.TILE_SIZE - image.getWidth()) / 2,
+                py + (TERenderer.TILE_SIZE - image.getHeight()) / 2, null);
+    }
+
+    /**
+     * Returns the pre-rendered image of this tile, creating it on first use.
+     * @return the decoded image at filepath, or a sprite of the character and colors
+     */
+    public BufferedImage sprite() {
+        if (sprite == null) {
+            BufferedImage image = filepath == null ? null : TileSprites.image(filepath);
+            sprite = image != null ? image : TileSprites.glyph(character, textColor, backgroundColor);
+        }
+        return sprite;
+    }
+
     /** Character representation of the tile. Used for drawing in text mode.
      * @return character representation
      */
@@ -136,6 +161,23 @@ public class TETile {
         return new TETile(t, c);
     }
 
+    /**
+     * Creates a copy of the given tile with its text and background colors scaled by the
+     * given brightness, e.g. to show a tile that is only dimly lit. Images cannot be tinted,
+     * so the copy is always drawn with its character.
+     * @param t the tile to copy
+     * @param brightness the factor every color channel is multiplied with, from 0 to 1
+     */
+    public static TETile tinted(TETile t, double brightness) {
+        return new TETile(t.character, scale(t.textColor, brightness),
+                scale(t.backgroundColor, brightness), t.description);
+    }
+
+    private static Color scale(Color c, double brightness) {
+        return new Color((int) (c.getRed() * brightness), (int) (c.getGreen() * brightness),
+                (int) (c.getBlue() * brightness));
+    }
+
     private static int newColorValue(int v, int dv, Random r) {
         int rawNewValue = v + RandomUtils.uniform(r, -dv, dv + 1);
 
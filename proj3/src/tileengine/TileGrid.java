@@ -0,0 +1,220 @@
+package tileengine;
+
+import java.util.Arrays;
+
+/**
+ * A TileGrid is a compact 2D map of tiles. Every cell stores a single byte that indexes
+ * into a TilePalette, and cells are laid out row by row in one flat array.
+ *
+ * Coordinates follow the same convention as a TETile[][] world: (0, 0) is the bottom
+ * left corner, x grows to the right and y grows upwards. Use toTiles or copyInto when a
+ * TETile[][] is needed, for example to hand the world to the TERenderer.
+ */
+public class TileGrid {
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    private final TilePalette palette;
+    private DirtyRegion dirty;
+
+    /**
+     * Creates a grid where every cell holds the given tile.
+     * @param width number of columns
+     * @param height number of rows
+     * @param palette palette the cells index into
+     * @param fill tile every cell starts with. Must be in the palette.
+     */
+    public TileGrid(int width, int height, TilePalette palette, TETile fill) {
+        this.width = width;
+        this.height = height;
+        this.cells = new byte[width * height];
+        this.palette = palette;
+        Arrays.fill(cells, (byte) indexOf(fill));
+    }
+
+    /**
+     * Creates a grid that keeps its cells somewhere else. Subclasses using this constructor
+     * must override cellAt, storeCell and toIndices.
+     * @param width number of columns
+     * @param height number of rows
+     * @param palette palette the cells index into
+     */
+    protected TileGrid(int width, int height, TilePalette palette) {
+        this.width = width;
+        this.height = height;
+        this.cells = null;
+        this.palette = palette;
+    }
+
+    /**
+     * @return the number of columns in the grid
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows in the grid
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return the palette the cells index into
+     */
+    public TilePalette getPalette() {
+        return palette;
+    }
+
+    /**
+     * Starts reporting every changed cell to the given dirty region, so that the
+     * TERenderer can redraw only those cells.
+     * @param region the region to report changes to, or null to stop reporting
+     */
+    public void setDirtyRegion(DirtyRegion region) {
+        this.dirty = region;
+    }
+
+    /**
+     * Checks whether the given position lies on the grid.
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return true if (x, y) is inside the grid
+     */
+    public boolean inBounds(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return the tile at (x, y)
+     */
+    public TETile get(int x, int y) {
+        return palette.get(getIndex(x, y));
+    }
+
+    /**
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return the palette index stored at (x, y)
+     */
+    public int getIndex(int x, int y) {
+        return cellAt(y * width + x) & 0xFF;
+    }
+
+    /**
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return the property bits of the tile at (x, y)
+     */
+    public int flags(int x, int y) {
+        return palette.flags(getIndex(x, y));
+    }
+
+    /**
+     * Checks whether the tile at (x, y) has any of the given property bits.
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param flag property bits to test, e.g. TilePalette.WALKABLE
+     * @return true if the tile has at least one of the bits
+     */
+    public boolean has(int x, int y, int flag) {
+        return (flags(x, y) & flag) != 0;
+    }
+
+    /**
+     * Places a tile at (x, y).
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param tile the tile to place. Must be in the palette.
+     */
+    public void set(int x, int y, TETile tile) {
+        setIndex(x, y, indexOf(tile));
+    }
+
+    /**
+     * Places the tile with the given palette index at (x, y).
+     * @param x x coordinate
+     * @param y y coordinate
+     * @param index a palette index
+     */
+    public void setIndex(int x, int y, int index) {
+        int i = y * width + x;
+        if (cellAt(i) == (byte) index) {
+            return;
+        }
+        storeCell(i, (byte) index);
+        if (dirty != null) {
+            dirty.mark(x, y);
+        }
+    }
+
+    /**
+     * @param i a cell number, y * width + x
+     * @return the raw palette index stored in the cell
+     */
+    protected byte cellAt(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Stores a raw palette index without reporting the change.
+     * @param i a cell number, y * width + x
+     * @param index the palette index
+     */
+    protected void storeCell(int i, byte index) {
+        cells[i] = index;
+    }
+
+    /**
+     * Reports a changed cell to the dirty region, if there is one.
+     * @param i a cell number, y * width + x
+     */
+    protected void markChanged(int i) {
+        if (dirty != null) {
+            dirty.mark(i % width, i / width);
+        }
+    }
+
+    /**
+     * Copies the palette index of every cell, row by row.
+     * @return a new array of width * height palette indices
+     */
+    public byte[] toIndices() {
+        return cells.clone();
+    }
+
+    /**
+     * Creates a new TETile[][] with the contents of this grid.
+     * @return the grid as a TETile[width][height] array
+     */
+    public TETile[][] toTiles() {
+        TETile[][] tiles = new TETile[width][height];
+        copyInto(tiles);
+        return tiles;
+    }
+
+    /**
+     * Writes the contents of this grid into an existing TETile[][], so that a caller
+     * rendering every frame can reuse the same array.
+     * @param tiles an array of at least width by height tiles
+     */
+    public void copyInto(TETile[][] tiles) {
+        for (int x = 0; x < width; x += 1) {
+            TETile[] column = tiles[x];
+            for (int y = 0; y < height; y += 1) {
+                column[y] = get(x, y);
+            }
+        }
+    }
+
+    private int indexOf(TETile tile) {
+        int index = palette.indexOf(tile);
+        if (index < 0) {
+            throw new IllegalArgumentException("Tile " + tile.description() + " is not in the palette.");
+        }
+        return index;
+    }
+}
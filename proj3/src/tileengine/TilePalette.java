@@ -0,0 +1,97 @@
+package tileengine;
+
+import java.util.Arrays;
+
+/**
+ * A TilePalette maps small integer indices to TETile objects, so that a TileGrid can
+ * store one byte per cell instead of one object reference. Each entry also carries a
+ * set of property bits (walkable, obstacle, ...) that gameplay code can test with a
+ * single table lookup instead of comparing tiles.
+ *
+ * Entries are added while the palette is being set up (usually by a Theme) and are
+ * expected to stay the same afterwards, so a palette can be shared by many grids.
+ */
+public class TilePalette {
+    public static final int WALKABLE = 1;
+    public static final int OBSTACLE = 1 << 1;
+    public static final int COLLECTIBLE = 1 << 2;
+    public static final int OPAQUE = 1 << 3;
+    private static final int MAX_SIZE = 256;
+
+    private TETile[] tiles;
+    private int[] flags;
+    private int size;
+
+    /**
+     * Creates an empty palette.
+     */
+    public TilePalette() {
+        this.tiles = new TETile[8];
+        this.flags = new int[8];
+        this.size = 0;
+    }
+
+    /**
+     * Adds a tile to the palette. If the tile is already present, its property bits are
+     * combined with the given ones and the existing index is returned.
+     * @param tile the tile to add
+     * @param tileFlags property bits of the tile, e.g. WALKABLE | COLLECTIBLE
+     * @return the palette index of the tile
+     */
+    public int add(TETile tile, int tileFlags) {
+        int index = indexOf(tile);
+        if (index >= 0) {
+            flags[index] |= tileFlags;
+            return index;
+        }
+        if (size == MAX_SIZE) {
+            throw new IllegalStateException("A palette can hold at most " + MAX_SIZE + " tiles.");
+        }
+        if (size == tiles.length) {
+            tiles = Arrays.copyOf(tiles, size * 2);
+            flags = Arrays.copyOf(flags, size * 2);
+        }
+        tiles[size] = tile;
+        flags[size] = tileFlags;
+        size += 1;
+        return size - 1;
+    }
+
+    /**
+     * Finds the index of the given tile. Tiles are compared by identity, like the rest of
+     * the tile engine does.
+     * @param tile the tile to look up
+     * @return the palette index of the tile, or -1 if it is not in the palette
+     */
+    public int indexOf(TETile tile) {
+        for (int i = 0; i < size; i += 1) {
+            if (tiles[i] == tile) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param index a palette index
+     * @return the tile stored at the index
+     */
+    public TETile get(int index) {
+        return tiles[index];
+    }
+
+    /**
+     * @param index a palette index
+     * @return the property bits of the tile stored at the index
+     */
+    public int flags(int index) {
+        return flags[index];
+    }
+
+    /**
+     * @return the number of tiles in the palette
+     */
+    public int size() {
+        return size;
+    }
+}
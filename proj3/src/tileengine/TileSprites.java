@@ -0,0 +1,83 @@
+package tileengine;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of pre-rendered tile images. Image files are decoded once per path, and every
+ * combination of character, text color and background color is rasterized once into a
+ * TILE_SIZE by TILE_SIZE sprite. Drawing a tile is then a single image copy.
+ *
+ * The glyphs use the tile size and font of TERenderer, with the same centering as
+ * StdDraw.text, so cached sprites look the same as tiles drawn by StdDraw.
+ */
+public class TileSprites {
+    private static final int TILE_SIZE = TERenderer.TILE_SIZE;
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    private static final ConcurrentHashMap<String, BufferedImage> IMAGES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Long, BufferedImage> GLYPHS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the decoded image at the given path, reading the file only the first time.
+     * @param filepath path to an image file
+     * @return the image, or null if the file does not exist or cannot be decoded
+     */
+    public static BufferedImage image(String filepath) {
+        BufferedImage image = IMAGES.computeIfAbsent(filepath, TileSprites::load);
+        return image == MISSING ? null : image;
+    }
+
+    /**
+     * Returns the sprite of a character drawn in textColor on a square of backgroundColor,
+     * rasterizing it the first time this combination is requested.
+     * @param character the character to draw
+     * @param textColor color of the character
+     * @param backgroundColor color of the square behind the character
+     * @return a TILE_SIZE by TILE_SIZE sprite
+     */
+    public static BufferedImage glyph(char character, Color textColor, Color backgroundColor) {
+        long key = ((long) character << 48)
+                | ((long) (textColor.getRGB() & 0xFFFFFF) << 24)
+                | (backgroundColor.getRGB() & 0xFFFFFF);
+        return GLYPHS.computeIfAbsent(key, k -> rasterize(character, textColor, backgroundColor));
+    }
+
+    private static BufferedImage load(String filepath) {
+        File file = new File(filepath);
+        if (!file.isFile()) {
+            return MISSING;
+        }
+        try {
+            BufferedImage image = ImageIO.read(file);
+            return image == null ? MISSING : image;
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    private static BufferedImage rasterize(char character, Color textColor, Color backgroundColor) {
+        BufferedImage sprite = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = sprite.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.setColor(backgroundColor);
+        g.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+        g.setFont(TERenderer.TILE_FONT);
+        g.setColor(textColor);
+        FontMetrics metrics = g.getFontMetrics();
+        String text = Character.toString(character);
+        // Same placement as StdDraw.text: centered horizontally, baseline a descent below the middle
+        float x = (TILE_SIZE - metrics.stringWidth(text)) / 2.0f;
+        float y = TILE_SIZE / 2.0f + metrics.getDescent();
+        g.drawString(text, x, y);
+        g.dispose();
+        return sprite;
+    }
+}
@@ -1,31 +1,166 @@
 package utils;
 
-import javax.sound.sampled.*;
-import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
+/**
+ * The {@code Audio} class plays sound effects and background music without blocking the game.
+ *
+ * All sounds go through one {@link SoundMixer} on a single background audio thread. Effects
+ * are decoded once and mixed from memory, so the same effect can overlap with itself, while
+ * music is streamed from disk. The public methods only drop a command into a queue and
+ * return immediately, and if that queue is ever full the command is skipped rather than
+ * stalling the frame.
+ */
 public class Audio {
+    private static final int PRELOAD = 0;
+    private static final int PLAY = 1;
+    private static final int PLAY_MUSIC = 2;
+    private static final int LOOP_MUSIC = 3;
+    private static final int STOP_MUSIC = 4;
+    private static final BlockingQueue<Command> COMMANDS = new ArrayBlockingQueue<>(64);
+    private static Thread audioThread;
 
+    /**
+     * Loads the given sounds on the audio thread ahead of time, so their first play does not
+     * wait for the file to be decoded.
+     *
+     * @param filePaths The paths of the WAV files to load.
+     */
+    public static void preload(String... filePaths) {
+        for (String filePath : filePaths) {
+            submit(new Command(PRELOAD, filePath));
+        }
+    }
+
+    /**
+     * Plays a sound effect. Returns immediately; the sound starts on the audio thread.
+     *
+     * @param filePath The path of the WAV file to play.
+     */
     public static void playAudio(String filePath) {
-        try {
-            File audioFile = new File(filePath);
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(audioFile);
+        submit(new Command(PLAY, filePath));
+    }
 
-            // Get a Clip instance
-            Clip clip = AudioSystem.getClip();
+    /**
+     * Streams a music track once, replacing the current one.
+     *
+     * @param filePath The path of the WAV file to stream.
+     */
+    public static void playMusic(String filePath) {
+        submit(new Command(PLAY_MUSIC, filePath));
+    }
 
-            // Open the audioInputStream to the clip
-            clip.open(audioInputStream);
+    /**
+     * Streams a music track over and over, replacing the current one.
+     *
+     * @param filePath The path of the WAV file to stream.
+     */
+    public static void loopMusic(String filePath) {
+        submit(new Command(LOOP_MUSIC, filePath));
+    }
 
-            // Start playing the audio clip
-            clip.start();
+    /**
+     * Stops the current music track. Effects that are already playing keep going.
+     */
+    public static void stopMusic() {
+        submit(new Command(STOP_MUSIC, null));
+    }
 
-            // Wait for the clip to finish playing
-            while (!clip.isRunning()) {
-                Thread.sleep(20);
-            }
+    private static void submit(Command command) {
+        startAudioThread();
+        if (!COMMANDS.offer(command)) {
+            System.out.println("Audio is busy, skipped " + command.filePath);
+        }
+    }
 
+    private static synchronized void startAudioThread() {
+        if (audioThread != null) {
+            return;
+        }
+        audioThread = new Thread(Audio::runAudioThread, "audio");
+        audioThread.setDaemon(true);
+        audioThread.start();
+    }
+
+    /**
+     * Runs on the audio thread: applies commands as they arrive and keeps the mixer fed while
+     * anything is playing. When everything is quiet the thread waits for the next command.
+     */
+    private static void runAudioThread() {
+        SoundMixer mixer;
+        try {
+            mixer = new SoundMixer();
         } catch (Exception e) {
             e.printStackTrace();
+            mixer = null;
+        }
+        Map<String, short[]> sounds = new HashMap<>();
+        try {
+            while (true) {
+                Command command = mixer != null && mixer.isActive() ? COMMANDS.poll() : COMMANDS.take();
+                while (command != null) {
+                    if (mixer != null) {
+                        apply(mixer, sounds, command);
+                    }
+                    command = COMMANDS.poll();
+                }
+                if (mixer != null && mixer.isActive()) {
+                    mixer.mixNextChunk();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void apply(SoundMixer mixer, Map<String, short[]> sounds, Command command) {
+        switch (command.type) {
+            case PRELOAD:
+            case PLAY:
+                if (!sounds.containsKey(command.filePath)) {
+                    sounds.put(command.filePath, load(command.filePath));
+                }
+                short[] samples = sounds.get(command.filePath);
+                if (command.type == PLAY && samples != null) {
+                    mixer.play(samples);
+                }
+                break;
+            case PLAY_MUSIC:
+                mixer.playMusic(command.filePath, false);
+                break;
+            case LOOP_MUSIC:
+                mixer.playMusic(command.filePath, true);
+                break;
+            default:
+                mixer.stopMusic();
+        }
+    }
+
+    /**
+     * Decodes a WAV file once into samples the mixer can play.
+     *
+     * @return The samples of the sound, or null if the file could not be loaded.
+     */
+    private static short[] load(String filePath) {
+        try {
+            return SoundMixer.decode(filePath);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static class Command {
+        private final int type;
+        private final String filePath;
+
+        Command(int type, String filePath) {
+            this.type = type;
+            this.filePath = filePath;
         }
     }
 }
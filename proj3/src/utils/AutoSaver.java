@@ -0,0 +1,85 @@
+package utils;
+
+import core.Snapshot;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@code AutoSaver} class writes snapshots to the save file on a background thread, so
+ * the game loop never waits for the disk.
+ *
+ * Saves are coalesced: only the newest snapshot that has not been written yet is kept, and
+ * at most one write is in flight at a time. If the disk is slow, snapshots taken while a write
+ * is running simply replace each other, and the next write picks up the latest one.
+ */
+public class AutoSaver {
+    private final AtomicReference<Snapshot> pending = new AtomicReference<>();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final ExecutorService writer;
+
+    /**
+     * Constructs a new {@code AutoSaver} with its own writer thread, which lives as long as
+     * the saver.
+     */
+    public AutoSaver() {
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a snapshot to be saved, replacing any snapshot that has not been written yet.
+     * Returns immediately.
+     *
+     * @param ss The snapshot to save, which must not change afterwards.
+     */
+    public void save(Snapshot ss) {
+        pending.set(ss);
+        if (writing.compareAndSet(false, true)) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Blocks until the snapshot that is still queued, if any, has been written. The saver can
+     * be used again afterwards.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.out.println("Autosave did not finish: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs on the writer thread: writes the newest snapshot until none is left.
+     */
+    private void writePending() {
+        while (true) {
+            Snapshot ss = pending.getAndSet(null);
+            if (ss != null) {
+                try {
+                    SnapshotUtils.save(ss);
+                } catch (RuntimeException e) {
+                    System.out.println("Autosave failed: " + e.getMessage());
+                }
+            }
+            writing.set(false);
+            // A snapshot may have arrived after the last getAndSet but before writing was cleared
+            if (pending.get() == null || !writing.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package utils;
+
+import tileengine.DirtyRegion;
+import tileengine.TETile;
+import tileengine.TileGrid;
+import tileengine.TilePalette;
+
+import java.util.Arrays;
+
+/**
+ * The {@code FieldOfView} class works out which tiles the character can see in dark mode,
+ * using recursive shadowcasting: light spreads out from the character in eight octants and
+ * stops at every tile with the {@link TilePalette#OPAQUE} flag, so walls cast shadows.
+ *
+ * Visibility is only recomputed when the character moves or the light radius changes, and
+ * only the cells whose visibility changed are reported to the dirty region. Every tile that
+ * was ever seen is remembered as explored, and {@link #applyMask(TileGrid, TETile[][], TETile)}
+ * shows those tiles dimmed while hiding the rest, writing into the frame the game already
+ * renders instead of a new grid. Given a {@link LightMap}, the mask also hides what is in the
+ * dark and shades what is lit.
+ */
+public class FieldOfView {
+    private static final double DIM_BRIGHTNESS = 0.35;
+    // Octant transforms: xx, xy, yx, yy for each of the eight octants
+    private static final int[][] OCTANTS = {
+        {1, 0, 0, 1}, {0, 1, 1, 0}, {0, -1, 1, 0}, {-1, 0, 0, 1},
+        {-1, 0, 0, -1}, {0, -1, -1, 0}, {0, 1, -1, 0}, {1, 0, 0, -1}
+    };
+
+    private final int width;
+    private final int height;
+    private boolean[] visible;
+    private boolean[] previous;
+    private final boolean[] explored;
+    private TileGrid grid;
+    private int originX = -1;
+    private int originY = -1;
+    private int radius = -1;
+    private TilePalette dimmedPalette;
+    private TETile[] dimmed;
+
+    /**
+     * Constructs a new {@code FieldOfView} for a board of the given size, with nothing seen yet.
+     *
+     * @param width  The width of the board.
+     * @param height The height of the board.
+     */
+    public FieldOfView(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.visible = new boolean[width * height];
+        this.previous = new boolean[width * height];
+        this.explored = new boolean[width * height];
+    }
+
+    /**
+     * Recomputes what is visible from the given position, if the position or radius changed
+     * since the last call. Cells that became visible or hidden are marked in the dirty region.
+     *
+     * @param tiles   The board, whose opaque tiles block the view.
+     * @param x       The x-coordinate of the viewer.
+     * @param y       The y-coordinate of the viewer.
+     * @param sight   How far the viewer can see, in tiles.
+     * @param dirty   The region to mark changed cells in.
+     * @return True if the visibility was recomputed.
+     */
+    public boolean update(TileGrid tiles, int x, int y, int sight, DirtyRegion dirty) {
+        if (tiles == grid && x == originX && y == originY && sight == radius) {
+            return false;
+        }
+        int oldMinX = Math.max(0, originX - radius);
+        int oldMaxX = Math.min(width - 1, originX + radius);
+        int oldMinY = Math.max(0, originY - radius);
+        int oldMaxY = Math.min(height - 1, originY + radius);
+
+        boolean[] swap = previous;
+        this.previous = visible;
+        this.visible = swap;
+        clearBox(visible, oldMinX, oldMaxX, oldMinY, oldMaxY);
+        this.grid = tiles;
+        this.originX = x;
+        this.originY = y;
+        this.radius = sight;
+
+        visible[y * width + x] = true;
+        for (int[] octant : OCTANTS) {
+            castLight(1, 1.0, 0.0, octant[0], octant[1], octant[2], octant[3]);
+        }
+
+        markChanges(oldMinX, oldMaxX, oldMinY, oldMaxY, dirty);
+        markChanges(Math.max(0, x - sight), Math.min(width - 1, x + sight),
+                Math.max(0, y - sight), Math.min(height - 1, y + sight), dirty);
+        clearBox(previous, oldMinX, oldMaxX, oldMinY, oldMaxY);
+        return true;
+    }
+
+    /**
+     * Forces the next call to update to recompute, e.g. after walls changed.
+     */
+    public void invalidate() {
+        this.grid = null;
+    }
+
+    /**
+     * Forgets everything that was seen, for example when a new game starts.
+     */
+    public void reset() {
+        Arrays.fill(visible, false);
+        Arrays.fill(previous, false);
+        Arrays.fill(explored, false);
+        this.grid = null;
+        this.originX = -1;
+        this.originY = -1;
+        this.radius = -1;
+    }
+
+    public boolean isVisible(int x, int y) {
+        return visible[y * width + x];
+    }
+
+    public boolean isExplored(int x, int y) {
+        return explored[y * width + x];
+    }
+
+    /**
+     * Replaces every tile of the frame that is not visible: explored tiles with a dimmed copy
+     * and the rest with the unlit tile. Every visible tile becomes explored.
+     *
+     * @param tiles The board the frame was copied from.
+     * @param frame The frame to mask, in place.
+     * @param unlit The tile shown where nothing was ever seen.
+     */
+    public void applyMask(TileGrid tiles, TETile[][] frame, TETile unlit) {
+        applyMask(tiles, frame, unlit, null);
+    }
+
+    /**
+     * Masks the frame like {@link #applyMask(TileGrid, TETile[][], TETile)}, but a visible
+     * tile only counts as seen if it is lit, and is shaded by its light level. Visible tiles in
+     * the dark are shown like the tiles out of view.
+     *
+     * @param tiles The board the frame was copied from.
+     * @param frame The frame to mask, in place.
+     * @param unlit The tile shown where nothing was ever seen.
+     * @param light The light of the board, or null if everything is lit.
+     */
+    public void applyMask(TileGrid tiles, TETile[][] frame, TETile unlit, LightMap light) {
+        TilePalette palette = tiles.getPalette();
+        if (dimmedPalette != palette || dimmed.length != palette.size()) {
+            buildDimmed(palette);
+        }
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int level = light == null ? LightMap.MAX_LEVEL : light.getLevel(x, y);
+                if (visible[row + x] && level > 0) {
+                    explored[row + x] = true;
+                    if (light != null) {
+                        frame[x][y] = light.shade(palette, tiles.getIndex(x, y), level);
+                    }
+                    continue;
+                }
+                frame[x][y] = explored[row + x] ? dimmed[tiles.getIndex(x, y)] : unlit;
+            }
+        }
+    }
+
+    /**
+     * Scans one octant row by row, starting at the given row and between the given slopes,
+     * and recurses past every run of opaque tiles.
+     */
+    private void castLight(int row, double start, double end, int xx, int xy, int yx, int yy) {
+        if (start < end) {
+            return;
+        }
+        int radiusSquared = radius * radius + radius;
+        double newStart = 0;
+        for (int j = row; j <= radius; j++) {
+            boolean blocked = false;
+            int dy = -j;
+            for (int dx = -j; dx <= 0; dx++) {
+                int cellX = originX + dx * xx + dy * xy;
+                int cellY = originY + dx * yx + dy * yy;
+                double leftSlope = (dx - 0.5) / (dy + 0.5);
+                double rightSlope = (dx + 0.5) / (dy - 0.5);
+                if (start < rightSlope) {
+                    continue;
+                } else if (end > leftSlope) {
+                    break;
+                }
+
+                boolean inBounds = cellX >= 0 && cellX < width && cellY >= 0 && cellY < height;
+                if (inBounds && dx * dx + dy * dy <= radiusSquared) {
+                    visible[cellY * width + cellX] = true;
+                }
+
+                boolean opaque = !inBounds || grid.has(cellX, cellY, TilePalette.OPAQUE);
+                if (blocked) {
+                    if (opaque) {
+                        newStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = newStart;
+                    }
+                } else if (opaque && j < radius) {
+                    blocked = true;
+                    castLight(j + 1, start, leftSlope, xx, xy, yx, yy);
+                    newStart = rightSlope;
+                }
+            }
+            if (blocked) {
+                break;
+            }
+        }
+    }
+
+    private void markChanges(int minX, int maxX, int minY, int maxY, DirtyRegion dirty) {
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int i = y * width + x;
+                if (visible[i] != previous[i]) {
+                    dirty.mark(x, y);
+                }
+            }
+        }
+    }
+
+    private void clearBox(boolean[] cells, int minX, int maxX, int minY, int maxY) {
+        for (int y = minY; y <= maxY; y++) {
+            Arrays.fill(cells, y * width + minX, y * width + maxX + 1, false);
+        }
+    }
+
+    private void buildDimmed(TilePalette palette) {
+        this.dimmed = new TETile[palette.size()];
+        for (int i = 0; i < dimmed.length; i++) {
+            dimmed[i] = TETile.tinted(palette.get(i), DIM_BRIGHTNESS);
+        }
+        this.dimmedPalette = palette;
+    }
+}
@@ -2,7 +2,13 @@ package utils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * A library of simple file operations. Feel free to modify this file.
@@ -23,6 +29,34 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Writes the bytes to a temporary file next to the target and then moves it over the target,
+     * so a crash in the middle of the write leaves the old file intact.
+     *
+     * @param target The file to write.
+     * @param buffer The bytes to write, from its position to its limit.
+     * @throws RuntimeException if an IOException occurs during the write operation.
+     */
+    public static void writeAtomically(Path target, ByteBuffer buffer) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
     /**
      * Reads the contents of a file with the given filename.
      *
@@ -47,4 +81,18 @@ public class FileUtils {
     public static boolean fileExists(String filename) {
         return new File(filename).exists();
     }
+
+    /**
+     * Deletes the file with the given filename, if it exists.
+     *
+     * @param filename The name of the file to delete.
+     * @throws RuntimeException if an IOException occurs during the delete operation.
+     */
+    public static void deleteFile(String filename) {
+        try {
+            Files.deleteIfExists(new File(filename).toPath());
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 }
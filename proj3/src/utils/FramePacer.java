@@ -0,0 +1,114 @@
+package utils;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code FramePacer} class drives a fixed-timestep game loop. The simulation advances
+ * in ticks of a fixed length, rendering is capped at its own rate, and between ticks the
+ * calling thread is parked instead of spinning on the clock.
+ *
+ * A typical loop looks like:
+ * <pre>
+ *     while (running) {
+ *         while (pacer.shouldTick()) {
+ *             update();
+ *         }
+ *         if (changed &amp;&amp; pacer.shouldRender()) {
+ *             render();
+ *         }
+ *         pacer.sync();
+ *     }
+ * </pre>
+ *
+ * If a frame takes longer than its budget, the missed ticks are run back to back to catch
+ * up, but never more than {@code MAX_CATCH_UP_TICKS} of them, so a long stall does not turn
+ * into a burst of hundreds of updates.
+ */
+public class FramePacer {
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private final long tickNanos;
+    private final long frameNanos;
+    private long nextTick;
+    private long nextFrame;
+    private long droppedTicks;
+
+    /**
+     * Constructs a new {@code FramePacer} whose first tick is due immediately.
+     *
+     * @param ticksPerSecond  The number of simulation ticks per second.
+     * @param framesPerSecond The maximum number of rendered frames per second.
+     */
+    public FramePacer(int ticksPerSecond, int framesPerSecond) {
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.frameNanos = 1_000_000_000L / framesPerSecond;
+        long now = System.nanoTime();
+        this.nextTick = now;
+        this.nextFrame = now;
+    }
+
+    /**
+     * Checks whether a simulation tick is due and, if so, consumes it.
+     *
+     * @return True if the caller should run one tick, false if it is not time yet.
+     */
+    public boolean shouldTick() {
+        long now = System.nanoTime();
+        if (now - nextTick < 0) {
+            return false;
+        }
+        nextTick += tickNanos;
+        long behind = (now - nextTick) / tickNanos;
+        if (behind > MAX_CATCH_UP_TICKS) {
+            droppedTicks += behind;
+            nextTick = now;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether enough time passed since the last rendered frame to render another one.
+     *
+     * @return True if the caller may render now, false if it should wait.
+     */
+    public boolean shouldRender() {
+        long now = System.nanoTime();
+        if (now - nextFrame < 0) {
+            return false;
+        }
+        nextFrame = now + frameNanos;
+        return true;
+    }
+
+    /**
+     * Parks the calling thread until the next tick is due. Returns right away if the loop is
+     * already behind, or if the thread is interrupted.
+     */
+    public void sync() {
+        long remaining = nextTick - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            remaining = nextTick - System.nanoTime();
+        }
+    }
+
+    /**
+     * Gets the length of one simulation tick.
+     *
+     * @return The tick length in nanoseconds.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Gets the number of ticks that were skipped because the loop fell too far behind.
+     *
+     * @return The number of dropped ticks.
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+}
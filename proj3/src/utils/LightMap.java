@@ -0,0 +1,310 @@
+package utils;
+
+import tileengine.DirtyRegion;
+import tileengine.TETile;
+import tileengine.TileGrid;
+import tileengine.TilePalette;
+
+import java.util.Arrays;
+
+/**
+ * The {@code LightMap} class keeps the light level of every cell of the board for dark mode,
+ * lit by any number of light sources such as the character, torches and coins.
+ *
+ * A source of strength {@code s} lights its own cell at level {@code s}, and every step away
+ * from it through tiles without the {@link TilePalette#OPAQUE} flag loses one level, so walls
+ * are lit on the side facing the light but stop it from going further. Where several sources
+ * reach the same cell the brightest one wins.
+ *
+ * Levels are kept in a byte per cell and updated incrementally: adding a source spreads its
+ * light with a breadth first search that stops where the cells are already as bright, and
+ * removing one first darkens only the cells its light reached, then lets the neighbouring
+ * light flow back in. Moving a source is a removal followed by an addition, so a step of the
+ * character only touches the cells around its old and new position. Every cell whose level
+ * changes is marked in the dirty region.
+ */
+public class LightMap {
+    public static final int MAX_LEVEL = 15;
+    private static final int FULL_LEVEL = 4;
+    private static final double MIN_BRIGHTNESS = 0.35;
+
+    private final int width;
+    private final int height;
+    private final byte[] level;
+    private final byte[] sourceLevel;
+    private int[] sourceCell = new int[16];
+    private int[] sourceStrength = new int[16];
+    private int sourceCount;
+    private TileGrid grid;
+    private DirtyRegion dirty;
+    private int[] spreadQueue;
+    private int[] removeQueue;
+    private TilePalette shadedPalette;
+    private TETile[][] shaded;
+
+    /**
+     * Constructs a new {@code LightMap} for a board of the given size, with no light at all.
+     *
+     * @param width  The width of the board.
+     * @param height The height of the board.
+     */
+    public LightMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.level = new byte[width * height];
+        this.sourceLevel = new byte[width * height];
+        this.spreadQueue = new int[width * height];
+        this.removeQueue = new int[width * height];
+    }
+
+    /**
+     * Removes every source and darkens the whole board, for example when a new game starts.
+     *
+     * @param tiles The board, whose opaque tiles stop the light.
+     * @param dirty The region to mark cells whose light level changes in, or null.
+     */
+    public void reset(TileGrid tiles, DirtyRegion dirty) {
+        Arrays.fill(level, (byte) 0);
+        Arrays.fill(sourceLevel, (byte) 0);
+        this.sourceCount = 0;
+        this.grid = tiles;
+        this.dirty = dirty;
+    }
+
+    /**
+     * Adds a light source and spreads its light.
+     *
+     * @param x        The x-coordinate of the source.
+     * @param y        The y-coordinate of the source.
+     * @param strength The light level at the source, between 1 and {@link #MAX_LEVEL}.
+     * @return The id of the source, to move or remove it later.
+     */
+    public int addSource(int x, int y, int strength) {
+        if (sourceCount == sourceCell.length) {
+            this.sourceCell = Arrays.copyOf(sourceCell, sourceCount * 2);
+            this.sourceStrength = Arrays.copyOf(sourceStrength, sourceCount * 2);
+        }
+        int id = sourceCount++;
+        place(id, y * width + x, strength);
+        return id;
+    }
+
+    /**
+     * Removes a light source and darkens the cells only it was lighting.
+     *
+     * @param id The id returned by {@link #addSource(int, int, int)}.
+     */
+    public void removeSource(int id) {
+        int cell = sourceCell[id];
+        if (cell < 0) {
+            return;
+        }
+        sourceCell[id] = -1;
+        int strength = sourceStrength[id];
+        int remaining = 0;
+        for (int i = 0; i < sourceCount; i++) {
+            if (sourceCell[i] == cell) {
+                remaining = Math.max(remaining, sourceStrength[i]);
+            }
+        }
+        sourceLevel[cell] = (byte) remaining;
+        if (level[cell] <= strength && remaining < strength) {
+            unlight(cell);
+        }
+    }
+
+    /**
+     * Moves a light source, updating only the cells around its old and new position.
+     *
+     * @param id The id of the source.
+     * @param x  The new x-coordinate of the source.
+     * @param y  The new y-coordinate of the source.
+     */
+    public void moveSource(int id, int x, int y) {
+        int cell = y * width + x;
+        if (sourceCell[id] == cell) {
+            return;
+        }
+        int strength = sourceStrength[id];
+        removeSource(id);
+        place(id, cell, strength);
+    }
+
+    /**
+     * Changes how bright a light source is.
+     *
+     * @param id       The id of the source.
+     * @param strength The new light level at the source, between 1 and {@link #MAX_LEVEL}.
+     */
+    public void setStrength(int id, int strength) {
+        int cell = sourceCell[id];
+        if (cell < 0 || sourceStrength[id] == strength) {
+            return;
+        }
+        removeSource(id);
+        place(id, cell, strength);
+    }
+
+    /**
+     * Gets the light level of a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The level, 0 if the cell is dark.
+     */
+    public int getLevel(int x, int y) {
+        return level[y * width + x];
+    }
+
+    /**
+     * Gets a tile of the palette as it looks under the given light level: tiles at or above a
+     * few levels of light look as usual, and dimmer ones are tinted darker. The tinted tiles are
+     * made once per palette and reused.
+     *
+     * @param palette The palette of the board.
+     * @param index   The index of the tile in the palette.
+     * @param light   The light level of the cell, at least 1.
+     * @return The tile to draw.
+     */
+    public TETile shade(TilePalette palette, int index, int light) {
+        if (light >= FULL_LEVEL) {
+            return palette.get(index);
+        }
+        if (shadedPalette != palette || shaded[0].length != palette.size()) {
+            buildShaded(palette);
+        }
+        return shaded[light][index];
+    }
+
+    private void place(int id, int cell, int strength) {
+        strength = Math.max(1, Math.min(MAX_LEVEL, strength));
+        sourceCell[id] = cell;
+        sourceStrength[id] = strength;
+        sourceLevel[cell] = (byte) Math.max(sourceLevel[cell], strength);
+        if (level[cell] < strength) {
+            setLevel(cell, strength);
+            spreadQueue[0] = cell;
+            spread(1);
+        }
+    }
+
+    /**
+     * Darkens the cell and every cell whose light came through it, then spreads the light of
+     * the brighter cells around the darkened area, and of any other source inside it, back in.
+     */
+    private void unlight(int origin) {
+        int removeTail = 0;
+        int spreadTail = 0;
+        removeQueue = ensureCapacity(removeQueue, removeTail);
+        removeQueue[removeTail++] = origin * (MAX_LEVEL + 1) + level[origin];
+        setLevel(origin, 0);
+        if (sourceLevel[origin] > 0) {
+            setLevel(origin, sourceLevel[origin]);
+            spreadQueue = ensureCapacity(spreadQueue, spreadTail);
+            spreadQueue[spreadTail++] = origin;
+        }
+
+        for (int head = 0; head < removeTail; head++) {
+            int cell = removeQueue[head] / (MAX_LEVEL + 1);
+            int old = removeQueue[head] % (MAX_LEVEL + 1);
+            // A wall passed no light on, so the removal stops there, but lit cells next to it
+            // may have been lighting it from the other side and must light it again
+            boolean wall = cell != origin && isOpaque(cell);
+            int x = cell % width;
+            int y = cell / width;
+            for (int d = 0; d < 4; d++) {
+                int n = neighbour(x, y, d);
+                if (n < 0) {
+                    continue;
+                }
+                int current = level[n];
+                if (wall) {
+                    if (current > 0) {
+                        spreadQueue = ensureCapacity(spreadQueue, spreadTail);
+                        spreadQueue[spreadTail++] = n;
+                    }
+                } else if (current != 0 && current < old) {
+                    removeQueue = ensureCapacity(removeQueue, removeTail);
+                    removeQueue[removeTail++] = n * (MAX_LEVEL + 1) + current;
+                    setLevel(n, 0);
+                    if (sourceLevel[n] > 0) {
+                        setLevel(n, sourceLevel[n]);
+                        spreadQueue = ensureCapacity(spreadQueue, spreadTail);
+                        spreadQueue[spreadTail++] = n;
+                    }
+                } else if (current >= old) {
+                    spreadQueue = ensureCapacity(spreadQueue, spreadTail);
+                    spreadQueue[spreadTail++] = n;
+                }
+            }
+        }
+        spread(spreadTail);
+    }
+
+    /**
+     * Spreads light outwards from the cells already in the spread queue, brightening every cell
+     * that is darker than one level less than its neighbour. Opaque cells take light but never
+     * pass it on unless a source sits on them.
+     */
+    private void spread(int tail) {
+        for (int head = 0; head < tail; head++) {
+            int cell = spreadQueue[head];
+            int next = level[cell] - 1;
+            if (next <= 0 || (isOpaque(cell) && sourceLevel[cell] == 0)) {
+                continue;
+            }
+            int x = cell % width;
+            int y = cell / width;
+            for (int d = 0; d < 4; d++) {
+                int n = neighbour(x, y, d);
+                if (n >= 0 && level[n] < next) {
+                    setLevel(n, next);
+                    spreadQueue = ensureCapacity(spreadQueue, tail);
+                    spreadQueue[tail++] = n;
+                }
+            }
+        }
+    }
+
+    private int neighbour(int x, int y, int direction) {
+        switch (direction) {
+            case 0:
+                return x + 1 < width ? y * width + x + 1 : -1;
+            case 1:
+                return x > 0 ? y * width + x - 1 : -1;
+            case 2:
+                return y + 1 < height ? (y + 1) * width + x : -1;
+            default:
+                return y > 0 ? (y - 1) * width + x : -1;
+        }
+    }
+
+    private boolean isOpaque(int cell) {
+        return grid.has(cell % width, cell / width, TilePalette.OPAQUE);
+    }
+
+    private void setLevel(int cell, int value) {
+        if (level[cell] == value) {
+            return;
+        }
+        level[cell] = (byte) value;
+        if (dirty != null) {
+            dirty.mark(cell % width, cell / width);
+        }
+    }
+
+    private static int[] ensureCapacity(int[] queue, int tail) {
+        return tail < queue.length ? queue : Arrays.copyOf(queue, queue.length * 2);
+    }
+
+    private void buildShaded(TilePalette palette) {
+        this.shaded = new TETile[FULL_LEVEL][palette.size()];
+        for (int light = 1; light < FULL_LEVEL; light++) {
+            double brightness = MIN_BRIGHTNESS + (1 - MIN_BRIGHTNESS) * light / FULL_LEVEL;
+            for (int i = 0; i < palette.size(); i++) {
+                shaded[light][i] = TETile.tinted(palette.get(i), brightness);
+            }
+        }
+        this.shadedPalette = palette;
+    }
+}
@@ -0,0 +1,325 @@
+package utils;
+
+import core.Point;
+import core.PointSet;
+import core.Snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The {@code MoveJournal} class keeps a running game recoverable by appending every change
+ * to a memory-mapped log, instead of rewriting the whole save file.
+ *
+ * A move or a coin pickup costs one byte and a change of the timer a few more. Every
+ * {@code CHECKPOINT_INTERVAL} records a checkpoint with the whole {@link Snapshot} is
+ * appended, and when the log is full it starts over from a single checkpoint. Recovering
+ * replays the records after the last checkpoint on top of it.
+ *
+ * Each record is written body first and its type byte last, with an end marker after it,
+ * so a crash in the middle of a write only loses that record.
+ */
+public class MoveJournal {
+    private static final String FILEPATH = "save-journal.bin";
+    private static final int CAPACITY = 1 << 20;
+    private static final int MAGIC = 0x4A524E4C;
+    private static final int HEADER_BYTES = 4;
+    private static final int CHECKPOINT_INTERVAL = 1024;
+
+    private static final byte END = 0;
+    private static final byte MOVE_RIGHT = 1;
+    private static final byte MOVE_LEFT = 2;
+    private static final byte MOVE_UP = 3;
+    private static final byte MOVE_DOWN = 4;
+    private static final byte COIN = 5;
+    private static final byte TIME = 6;
+    private static final byte CHECKPOINT = 7;
+
+    private final MappedByteBuffer log;
+    private final State state = new State();
+    private int position;
+    private int recordsSinceCheckpoint;
+
+    /**
+     * Opens the default journal file, creating it if needed.
+     */
+    public MoveJournal() {
+        this(FILEPATH);
+    }
+
+    /**
+     * Opens the journal file, creating it if needed. The journal is empty until the first
+     * call to {@link #checkpoint(Snapshot)}.
+     *
+     * @param filePath The path of the journal file.
+     */
+    public MoveJournal(String filePath) {
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.log = channel.map(FileChannel.MapMode.READ_WRITE, 0, CAPACITY);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        log.putInt(0, MAGIC);
+        clear();
+    }
+
+    /**
+     * Starts the journal over from the given state.
+     *
+     * @param ss The current state of the game.
+     */
+    public void checkpoint(Snapshot ss) {
+        state.reset(ss);
+        clear();
+        appendCheckpoint();
+    }
+
+    /**
+     * Records a move of the character by one tile.
+     *
+     * @param deltaX The change in the x-coordinate.
+     * @param deltaY The change in the y-coordinate.
+     */
+    public void recordMove(int deltaX, int deltaY) {
+        byte type;
+        if (deltaX == 1 && deltaY == 0) {
+            type = MOVE_RIGHT;
+        } else if (deltaX == -1 && deltaY == 0) {
+            type = MOVE_LEFT;
+        } else if (deltaX == 0 && deltaY == 1) {
+            type = MOVE_UP;
+        } else if (deltaX == 0 && deltaY == -1) {
+            type = MOVE_DOWN;
+        } else {
+            throw new IllegalArgumentException("not a single step: " + deltaX + ", " + deltaY);
+        }
+        append(type, null);
+    }
+
+    /**
+     * Records that the character picked up the coin it is standing on.
+     */
+    public void recordCoin() {
+        append(COIN, null);
+    }
+
+    /**
+     * Records the time left on the timer.
+     *
+     * @param secondsLeft The seconds left.
+     */
+    public void recordTime(int secondsLeft) {
+        ByteBuffer body = ByteBuffer.allocate(4).putInt(secondsLeft);
+        body.flip();
+        append(TIME, body);
+    }
+
+    /**
+     * Empties the journal, for example once the game is over and there is nothing to recover.
+     */
+    public void clear() {
+        log.put(HEADER_BYTES, END);
+        this.position = HEADER_BYTES;
+        this.recordsSinceCheckpoint = 0;
+    }
+
+    /**
+     * Checks whether the default journal file holds a game to recover, by reading only the
+     * first bytes of it instead of replaying it.
+     *
+     * @return True if the journal starts with a checkpoint.
+     */
+    public static boolean hasCheckpoint() {
+        return hasCheckpoint(FILEPATH);
+    }
+
+    /**
+     * Checks whether a journal file holds a game to recover, by reading only the first bytes
+     * of it instead of replaying it. A journal always starts over from a checkpoint, and is
+     * emptied when the game is over.
+     *
+     * @param filePath The path of the journal file.
+     * @return True if the journal starts with a checkpoint.
+     */
+    public static boolean hasCheckpoint(String filePath) {
+        if (!FileUtils.fileExists(filePath)) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + 1);
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header and the first record type are in the buffer
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return !header.hasRemaining() && header.getInt(0) == MAGIC
+                && header.get(HEADER_BYTES) == CHECKPOINT;
+    }
+
+    /**
+     * Rebuilds the state of the game from the default journal file.
+     *
+     * @return The state after the last record, or null if the journal holds no checkpoint.
+     */
+    public static Snapshot recover() {
+        return recover(FILEPATH);
+    }
+
+    /**
+     * Rebuilds the state of the game from a journal file.
+     *
+     * @param filePath The path of the journal file.
+     * @return The state after the last record, or null if the journal holds no checkpoint.
+     */
+    public static Snapshot recover(String filePath) {
+        if (!FileUtils.fileExists(filePath)) {
+            return null;
+        }
+        ByteBuffer log;
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            log = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), CAPACITY));
+        } catch (IOException e) {
+            System.out.println(filePath + " could not be read: " + e.getMessage());
+            return null;
+        }
+        if (log.limit() < HEADER_BYTES + 1 || log.getInt(0) != MAGIC) {
+            return null;
+        }
+
+        State state = new State();
+        boolean hasCheckpoint = false;
+        log.position(HEADER_BYTES);
+        try {
+            while (log.hasRemaining()) {
+                byte type = log.get();
+                if (type == END) {
+                    break;
+                } else if (type == CHECKPOINT) {
+                    int length = log.getInt();
+                    ByteBuffer body = log.duplicate();
+                    body.limit(log.position() + length);
+                    state.reset(SnapshotUtils.decode(body));
+                    log.position(log.position() + length);
+                    hasCheckpoint = true;
+                } else if (type == TIME) {
+                    state.secondsLeft = log.getInt();
+                } else if (hasCheckpoint) {
+                    state.apply(type);
+                }
+            }
+        } catch (RuntimeException e) {
+            // A damaged record ends the journal, everything before it still counts
+            System.out.println(filePath + " ends with a damaged record: " + e.getMessage());
+        }
+        return hasCheckpoint ? state.toSnapshot() : null;
+    }
+
+    private void append(byte type, ByteBuffer body) {
+        state.apply(type);
+        if (type == TIME) {
+            state.secondsLeft = body.getInt(0);
+        }
+        int length = body == null ? 0 : body.remaining();
+        if (!write(type, body, length)) {
+            // The log is full, start over from the state that includes this record
+            clear();
+            appendCheckpoint();
+            return;
+        }
+        recordsSinceCheckpoint++;
+        if (recordsSinceCheckpoint >= CHECKPOINT_INTERVAL) {
+            appendCheckpoint();
+        }
+    }
+
+    private void appendCheckpoint() {
+        ByteBuffer encoded = SnapshotUtils.encode(state.toSnapshot());
+        ByteBuffer body = ByteBuffer.allocate(4 + encoded.remaining());
+        body.putInt(encoded.remaining()).put(encoded).flip();
+        if (!write(CHECKPOINT, body, body.remaining())) {
+            clear();
+            if (!write(CHECKPOINT, body, body.remaining())) {
+                throw new IllegalStateException("checkpoint does not fit in the journal");
+            }
+        }
+        recordsSinceCheckpoint = 0;
+    }
+
+    /**
+     * Writes the body, then the end marker after it, and finally the type byte that makes the
+     * record visible.
+     *
+     * @return False if there is not enough room left.
+     */
+    private boolean write(byte type, ByteBuffer body, int length) {
+        int end = position + 1 + length;
+        if (end >= CAPACITY) {
+            return false;
+        }
+        if (body != null) {
+            ByteBuffer target = log.duplicate();
+            target.position(position + 1);
+            target.put(body.duplicate());
+        }
+        log.put(end, END);
+        log.put(position, type);
+        position = end;
+        return true;
+    }
+
+    /**
+     * The state of the game as the journal sees it.
+     */
+    private static class State {
+        private long seed;
+        private int x;
+        private int y;
+        private int score;
+        private double secondsLeft;
+        private PointSet coins = new PointSet();
+
+        void reset(Snapshot ss) {
+            this.seed = ss.getSeed();
+            this.x = ss.getCharLocation().x();
+            this.y = ss.getCharLocation().y();
+            this.score = ss.getScore();
+            this.secondsLeft = ss.getTimeLeft();
+            this.coins = new PointSet(ss.getCollectibles());
+        }
+
+        void apply(byte type) {
+            switch (type) {
+                case MOVE_RIGHT:
+                    x++;
+                    break;
+                case MOVE_LEFT:
+                    x--;
+                    break;
+                case MOVE_UP:
+                    y++;
+                    break;
+                case MOVE_DOWN:
+                    y--;
+                    break;
+                case COIN:
+                    coins.add(x, y);
+                    score++;
+                    break;
+                case TIME:
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown record type " + type);
+            }
+        }
+
+        Snapshot toSnapshot() {
+            return new Snapshot(seed, new Point(x, y), score, secondsLeft, new PointSet(coins).freeze());
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package utils;
+
+import core.Snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code SaveStore} class keeps the saved games of every profile and slot in one
+ * memory-mapped file, so listing, loading and writing saves never opens a file.
+ *
+ * The file starts with a header and a directory of {@code MAX_SLOTS} fixed-size entries,
+ * followed by the snapshots themselves in the format of {@link SnapshotUtils#encode(Snapshot)}.
+ * An entry looks like:
+ * <pre>
+ *     byte   length of the profile name, 0 if the entry is free
+ *     byte[] profile name, up to 31 bytes of UTF-8
+ *     int    slot
+ *     long   offset of the snapshot in the upper half, its length in the lower half
+ *     long   time of the save in milliseconds
+ * </pre>
+ * A new snapshot is always appended after the existing ones and forced to disk, and its entry
+ * is only pointed at it afterwards with a single 8-byte write, which is then forced too, so a
+ * crash or power loss in the middle of a save leaves the previous save of that slot in place.
+ * A store opened without durability skips forcing: saves are still seen by every reader at
+ * once, but only the operating system decides when they reach the disk. That suits headless
+ * runs that save thousands of times a second and have nothing to lose in a crash. When the
+ * file is full, the live snapshots are copied into a new file, which then replaces the old one.
+ *
+ * An index from profile and slot to directory entry is kept in memory.
+ */
+public class SaveStore {
+    private static final int MAGIC = 0x53415645;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int DATA_END = 8;
+    private static final int MAX_SLOTS = 1024;
+    private static final int ENTRY_BYTES = 64;
+    private static final int MAX_NAME_BYTES = 31;
+    private static final int ENTRY_SLOT = 32;
+    private static final int ENTRY_LOCATION = 40;
+    private static final int ENTRY_SAVED_AT = 48;
+    private static final int DATA_START = HEADER_BYTES + MAX_SLOTS * ENTRY_BYTES;
+    private static final int INITIAL_DATA_BYTES = 1 << 18;
+
+    private final Path path;
+    private final boolean durable;
+    private final Map<String, Integer> index = new HashMap<>();
+    private MappedByteBuffer map;
+    private int dataEnd;
+
+    /**
+     * Opens the save store, creating the file if needed. Every save is forced to disk.
+     *
+     * @param filePath The path of the save store file.
+     */
+    public SaveStore(String filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Opens the save store, creating the file if needed.
+     *
+     * @param filePath The path of the save store file.
+     * @param durable  Whether every save is forced to disk before it is published.
+     */
+    public SaveStore(String filePath, boolean durable) {
+        this.path = Path.of(filePath);
+        this.durable = durable;
+        boolean isNew = !FileUtils.fileExists(filePath);
+        try {
+            remap(isNew ? DATA_START + INITIAL_DATA_BYTES : -1);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        if (isNew || map.getInt(0) != MAGIC) {
+            if (!isNew) {
+                System.out.println(filePath + " is not a save store, starting an empty one");
+            }
+            for (int i = 0; i < MAX_SLOTS; i++) {
+                map.put(entryAt(i), (byte) 0);
+            }
+            map.putInt(4, VERSION);
+            map.putInt(DATA_END, DATA_START);
+            map.putInt(0, MAGIC);
+            force();
+        }
+        this.dataEnd = map.getInt(DATA_END);
+        for (int i = 0; i < MAX_SLOTS; i++) {
+            if (map.get(entryAt(i)) != 0) {
+                index.put(key(nameAt(i), map.getInt(entryAt(i) + ENTRY_SLOT)), i);
+            }
+        }
+    }
+
+    /**
+     * Saves a snapshot into a slot, replacing what was saved there before.
+     *
+     * @param profile The name of the player profile.
+     * @param slot    The slot of the profile.
+     * @param ss      The snapshot to save.
+     */
+    public synchronized void write(String profile, int slot, Snapshot ss) {
+        byte[] name = profile.getBytes(StandardCharsets.UTF_8);
+        if (name.length == 0 || name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("profile name must be 1 to " + MAX_NAME_BYTES + " bytes");
+        }
+        ByteBuffer encoded = SnapshotUtils.encode(ss);
+        Integer entry = index.get(key(profile, slot));
+        if (entry == null) {
+            entry = freeEntry();
+        }
+        if (dataEnd + encoded.remaining() > map.capacity()) {
+            compact(encoded.remaining());
+        }
+
+        int offset = dataEnd;
+        int length = encoded.remaining();
+        ByteBuffer data = map.duplicate();
+        data.position(offset);
+        data.put(encoded);
+        dataEnd += length;
+        map.putInt(DATA_END, dataEnd);
+        // The snapshot must be on disk before any entry points at it, or the OS could write
+        // the directory first and a power loss would leave the slot pointing at garbage
+        force();
+
+        int base = entryAt(entry);
+        if (map.get(base) == 0) {
+            ByteBuffer entryName = map.duplicate();
+            entryName.position(base + 1);
+            entryName.put(name);
+            map.putInt(base + ENTRY_SLOT, slot);
+            map.putLong(base + ENTRY_LOCATION, (long) offset << 32 | length);
+            map.put(base, (byte) name.length);
+            index.put(key(profile, slot), entry);
+        } else {
+            map.putLong(base + ENTRY_LOCATION, (long) offset << 32 | length);
+        }
+        map.putLong(base + ENTRY_SAVED_AT, System.currentTimeMillis());
+        force();
+    }
+
+    /**
+     * Loads the snapshot saved in a slot.
+     *
+     * @param profile The name of the player profile.
+     * @param slot    The slot of the profile.
+     * @return The snapshot, or null if nothing is saved in the slot or the save is damaged.
+     */
+    public synchronized Snapshot read(String profile, int slot) {
+        Integer entry = index.get(key(profile, slot));
+        if (entry == null) {
+            return null;
+        }
+        long location = map.getLong(entryAt(entry) + ENTRY_LOCATION);
+        try {
+            return SnapshotUtils.decode(region(map, (int) (location >>> 32), (int) location));
+        } catch (RuntimeException e) {
+            System.out.println("Save " + key(profile, slot) + " could not be loaded: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether something is saved in a slot.
+     *
+     * @param profile The name of the player profile.
+     * @param slot    The slot of the profile.
+     * @return True if the slot holds a save.
+     */
+    public synchronized boolean exists(String profile, int slot) {
+        return index.containsKey(key(profile, slot));
+    }
+
+    /**
+     * Removes the save in a slot. Its snapshot is dropped the next time the file is compacted.
+     *
+     * @param profile The name of the player profile.
+     * @param slot    The slot of the profile.
+     */
+    public synchronized void delete(String profile, int slot) {
+        Integer entry = index.remove(key(profile, slot));
+        if (entry != null) {
+            map.put(entryAt(entry), (byte) 0);
+            force();
+        }
+    }
+
+    /**
+     * Lists the slots of a profile that hold a save.
+     *
+     * @param profile The name of the player profile.
+     * @return The slots in ascending order.
+     */
+    public synchronized List<Integer> listSlots(String profile) {
+        List<Integer> slots = new ArrayList<>();
+        for (int entry : index.values()) {
+            if (nameAt(entry).equals(profile)) {
+                slots.add(map.getInt(entryAt(entry) + ENTRY_SLOT));
+            }
+        }
+        Collections.sort(slots);
+        return slots;
+    }
+
+    /**
+     * Gets the time a slot was last saved.
+     *
+     * @param profile The name of the player profile.
+     * @param slot    The slot of the profile.
+     * @return The time in milliseconds since the epoch, or 0 if the slot is empty.
+     */
+    public synchronized long savedAt(String profile, int slot) {
+        Integer entry = index.get(key(profile, slot));
+        return entry == null ? 0 : map.getLong(entryAt(entry) + ENTRY_SAVED_AT);
+    }
+
+    private int freeEntry() {
+        for (int i = 0; i < MAX_SLOTS; i++) {
+            if (map.get(entryAt(i)) == 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("save store is full");
+    }
+
+    /**
+     * Copies the header, the directory and the live snapshots into a new file that has room
+     * for at least {@code extra} more bytes, and replaces the old file with it.
+     */
+    private void compact(int extra) {
+        int live = 0;
+        for (int entry : index.values()) {
+            live += (int) map.getLong(entryAt(entry) + ENTRY_LOCATION);
+        }
+        int capacity = DATA_START + Math.max(INITIAL_DATA_BYTES, 2 * (live + extra));
+        ByteBuffer copy = ByteBuffer.allocate(capacity);
+        copy.put(region(map, 0, DATA_START));
+        for (int i = 0; i < MAX_SLOTS; i++) {
+            copy.put(entryAt(i), (byte) 0);
+        }
+        int end = DATA_START;
+        for (int entry : index.values()) {
+            int base = entryAt(entry);
+            long location = map.getLong(base + ENTRY_LOCATION);
+            int length = (int) location;
+            copy.position(base);
+            copy.put(region(map, base, ENTRY_BYTES));
+            copy.position(end);
+            copy.put(region(map, (int) (location >>> 32), length));
+            copy.putLong(base + ENTRY_LOCATION, (long) end << 32 | length);
+            end += length;
+        }
+        copy.putInt(DATA_END, end);
+        copy.rewind();
+
+        FileUtils.writeAtomically(path, copy);
+        try {
+            remap(-1);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        this.dataEnd = end;
+    }
+
+    /**
+     * Maps the whole file, first growing it to {@code size} bytes if that is not negative.
+     */
+    private void remap(long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long mapped = size < 0 ? Math.max(channel.size(), DATA_START) : size;
+            this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, mapped);
+        }
+    }
+
+    /**
+     * Writes the changes to the mapped file through to the disk, unless the store is not
+     * durable. Only the pages that changed are written.
+     */
+    private void force() {
+        if (durable) {
+            map.force();
+        }
+    }
+
+    /**
+     * Gets a view of {@code length} bytes of a buffer starting at {@code offset}, without
+     * moving the position of the buffer itself.
+     */
+    private static ByteBuffer region(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.limit(offset + length);
+        return view;
+    }
+
+    private static int entryAt(int entry) {
+        return HEADER_BYTES + entry * ENTRY_BYTES;
+    }
+
+    private String nameAt(int entry) {
+        int base = entryAt(entry);
+        byte[] name = new byte[map.get(base)];
+        region(map, base + 1, name.length).get(name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static String key(String profile, int slot) {
+        return profile + ":" + slot;
+    }
+}
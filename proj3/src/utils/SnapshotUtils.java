@@ -2,23 +2,56 @@ package utils;
 
 import core.Character;
 import core.Point;
+import core.PointSet;
 import core.Snapshot;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
 
 /**
  * The `SnapshotUtils` class provides utility methods for saving and loading game snapshots.
  * It includes functionality to save the game seed and character location to a file
  * and to load a game snapshot from a file.
  *
- * The file path for saving and loading snapshots is defined as a constant within the class.
+ * Snapshots are stored in a small binary format:
+ * <pre>
+ *     int    magic, "COIN"
+ *     byte   version
+ *     long   seed
+ *     int    score
+ *     double time left
+ *     varint character x, varint character y
+ *     varint number of collected coins
+ *     varint first packed coin position, then the difference to each next one
+ *     int    CRC32 of everything above
+ * </pre>
+ * A coin position is packed as {@code y << 16 | x}, and the positions are sorted so the
+ * differences stay small.
+ *
+ * Snapshots are kept in the {@link SaveStore}, and this class saves to and loads from the
+ * default slot of it. Saves from older versions, a single binary or text save file, are
+ * still read if the default slot is empty.
  *
  * @author Wai Han, Pranay Mallik
- * @version 1.2
+ * @version 1.3
  * @since Nov 17, 2023
  */
 public class SnapshotUtils {
-    private static final String FILEPATH = "save-file.txt";
+    private static final String STORE_FILEPATH = "saves.bin";
+    private static final String DEFAULT_PROFILE = "default";
+    private static final int DEFAULT_SLOT = 0;
+    private static final String FILEPATH = "save-file.bin";
+    private static final String LEGACY_FILEPATH = "save-file.txt";
+    private static final int MAGIC = 0x434F494E;
+    private static final byte VERSION = 1;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static SaveStore store;
+    private static boolean durable = true;
 
     /**
      * Saves the game seed and character location to a file.
@@ -27,47 +60,243 @@ public class SnapshotUtils {
      * @param character The main character of the game.
      */
     public static void saveSeed(long seed, Character character, double remainingSeconds) {
-        String content = seed + "\n" + character.getMyScore() + "\n" + remainingSeconds + "\n"
-                + character.getLocation().x() + "," + character.getLocation().y() + "\n";
-
-        for (Point coin : character.getCollectedCoinPositions()) {
-//            if (coin.x() == character.getLocation().x() && coin.y() == character.getLocation().y()) {
-//                continue;
-//            }
-            content += coin.x() + "," +coin.y() + "\n";
+        save(capture(seed, character, remainingSeconds));
+    }
+
+    /**
+     * Saves a snapshot to the default slot of the save store.
+     *
+     * @param ss The snapshot to save.
+     */
+    public static void save(Snapshot ss) {
+        store().write(DEFAULT_PROFILE, DEFAULT_SLOT, ss);
+    }
+
+    /**
+     * Deletes the saved game, from the default slot of the save store and from the save files
+     * of older versions, so a game that is over cannot be loaded again.
+     */
+    public static void deleteSave() {
+        store().delete(DEFAULT_PROFILE, DEFAULT_SLOT);
+        FileUtils.deleteFile(FILEPATH);
+        FileUtils.deleteFile(LEGACY_FILEPATH);
+    }
+
+    /**
+     * Gets the save store, opening it the first time.
+     *
+     * @return The save store that holds every profile and slot.
+     */
+    public static synchronized SaveStore store() {
+        if (store == null) {
+            store = new SaveStore(STORE_FILEPATH, durable);
+        }
+        return store;
+    }
+
+    /**
+     * Sets whether saves are forced to disk before they count, which is the default. Headless
+     * runs that save far more often than a player can turn it off, since losing a save in a
+     * crash costs them nothing.
+     *
+     * @param isDurable Whether saves are forced to disk.
+     */
+    public static synchronized void setDurable(boolean isDurable) {
+        if (isDurable != durable) {
+            durable = isDurable;
+            // Opened again with the new setting the next time it is used
+            store = null;
         }
-        FileUtils.writeFile(FILEPATH, content);
+    }
+
+    /**
+     * Captures the current state of a game in a snapshot. This does not copy the collected
+     * coins, since the character never changes a set it handed out.
+     *
+     * @param seed             The seed for generating the game world.
+     * @param character        The main character of the game.
+     * @param remainingSeconds The time left on the timer.
+     * @return The snapshot, which does not change when the game goes on.
+     */
+    public static Snapshot capture(long seed, Character character, double remainingSeconds) {
+        Point location = new Point(character.getLocation().x(), character.getLocation().y());
+        return new Snapshot(seed, location, character.getMyScore(), remainingSeconds,
+                character.getCollectedCoinPositions());
     }
 
     /**
      * Loads a game snapshot from a file.
      *
-     * @return A `Snapshot` object representing the loaded game state, or null if the file does not exist.
+     * @return A `Snapshot` object representing the loaded game state, or null if the file does not
+     *         exist or is damaged.
      */
     public static Snapshot loadSeed() {
+        if (store().exists(DEFAULT_PROFILE, DEFAULT_SLOT)) {
+            return store().read(DEFAULT_PROFILE, DEFAULT_SLOT);
+        }
         if (!FileUtils.fileExists(FILEPATH)) {
-            System.out.println(FILEPATH + " does not exist");
+            return loadLegacy();
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(FILEPATH), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the whole file is in the buffer
+            }
+            buffer.flip();
+            return decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            System.out.println(FILEPATH + " could not be loaded: " + e.getMessage());
             return null;
         }
-        System.out.println("The line starts here");
-        String lines = FileUtils.readFile(FILEPATH);
+    }
+
+    /**
+     * Loads the latest state of the saved game, the same way for the windowed game and for
+     * headless runs: the move journal is newer than the save unless the last game ended, in
+     * which case it is empty and the save is loaded instead.
+     *
+     * @return The saved game, or null if there is none or it is damaged.
+     */
+    public static Snapshot loadLatest() {
+        Snapshot snapshot = MoveJournal.recover();
+        return snapshot != null ? snapshot : loadSeed();
+    }
+
+    /**
+     * Checks whether there is a saved game to load.
+     *
+     * @return True if the default slot holds a save, or a save file from an older version exists.
+     */
+    public static boolean saveExists() {
+        return store().exists(DEFAULT_PROFILE, DEFAULT_SLOT)
+                || FileUtils.fileExists(FILEPATH) || FileUtils.fileExists(LEGACY_FILEPATH);
+    }
+
+    /**
+     * Encodes a snapshot in the binary save format.
+     *
+     * @param ss The snapshot to encode.
+     * @return A buffer positioned at the start of the encoded bytes.
+     */
+    public static ByteBuffer encode(Snapshot ss) {
+        PointSet coins = ss.getCollectibles();
+        ByteBuffer buffer = ByteBuffer.allocate(32 + MAX_VARINT_BYTES * (coins.size() + 3))
+                .order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.putLong(ss.getSeed());
+        buffer.putInt(ss.getScore());
+        buffer.putDouble(ss.getTimeLeft());
+        putVarint(buffer, ss.getCharLocation().x());
+        putVarint(buffer, ss.getCharLocation().y());
+        putVarint(buffer, coins.size());
+        // Cells come in row order, which is the ascending order of the packed positions
+        int previous = 0;
+        for (int cell = coins.nextCell(0); cell >= 0; cell = coins.nextCell(cell + 1)) {
+            int coin = coins.yOf(cell) << 16 | coins.xOf(cell);
+            putVarint(buffer, coin - previous);
+            previous = coin;
+        }
+        buffer.putInt((int) crc(buffer.array(), buffer.position()));
+        buffer.flip();
+        return buffer;
+    }
 
-        String[] line = lines.split("\n");
-        long seed = Integer.parseInt(line[0]);
-        int score = Integer.parseInt(line[1]);
-        double timeLeft = Double.parseDouble(line[2]);
-        String[] characterLoc = line[3].split(",");
-        Point charLocation = new Point(Integer.parseInt(characterLoc[0]), Integer.parseInt(characterLoc[1]));
+    /**
+     * Decodes a snapshot written by {@link #encode(Snapshot)}.
+     *
+     * @param buffer The encoded bytes, from its position to its limit.
+     * @return The decoded snapshot.
+     * @throws IllegalArgumentException If the bytes are not a valid snapshot.
+     */
+    public static Snapshot decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < 4 + 1 + 8 + 4 + 8 + 3 + 4) {
+            throw new IllegalArgumentException("snapshot is truncated");
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("not a snapshot");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported snapshot version " + version);
+        }
+        long seed = buffer.getLong();
+        int score = buffer.getInt();
+        double timeLeft = buffer.getDouble();
+        Point charLocation = new Point(getVarint(buffer), getVarint(buffer));
+        int count = getVarint(buffer);
 
         Snapshot ss = new Snapshot(seed, charLocation, score, timeLeft);
+        int coin = 0;
+        for (int i = 0; i < count; i++) {
+            coin += getVarint(buffer);
+            ss.addCollectible(coin & 0xFFFF, coin >>> 16);
+        }
 
-        for (int i = 3; i < line.length; i++) {
-            String[] parts = line[i].split(",");
-            int x = Integer.parseInt(parts[0]);
-            int y = Integer.parseInt(parts[1]);
-            Point location = new Point(x, y);
-            ss.addCollectible(location);
+        CRC32 crc = new CRC32();
+        ByteBuffer covered = buffer.duplicate();
+        covered.position(start).limit(buffer.position());
+        crc.update(covered);
+        if (buffer.remaining() < 4 || buffer.getInt() != (int) crc.getValue()) {
+            throw new IllegalArgumentException("snapshot checksum does not match");
         }
         return ss;
     }
+
+    private static long crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint is too long");
+    }
+
+    /**
+     * Loads a snapshot saved in the older text format, one value per line.
+     */
+    private static Snapshot loadLegacy() {
+        if (!FileUtils.fileExists(LEGACY_FILEPATH)) {
+            System.out.println(FILEPATH + " does not exist");
+            return null;
+        }
+        try {
+            String[] line = FileUtils.readFile(LEGACY_FILEPATH).split("\n");
+            long seed = Long.parseLong(line[0]);
+            int score = Integer.parseInt(line[1]);
+            double timeLeft = Double.parseDouble(line[2]);
+            String[] characterLoc = line[3].split(",");
+            Point charLocation = new Point(Integer.parseInt(characterLoc[0]), Integer.parseInt(characterLoc[1]));
+
+            Snapshot ss = new Snapshot(seed, charLocation, score, timeLeft);
+
+            // Collected coins start after the character location
+            for (int i = 4; i < line.length; i++) {
+                String[] parts = line[i].split(",");
+                ss.addCollectible(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+            }
+            return ss;
+        } catch (RuntimeException e) {
+            System.out.println(LEGACY_FILEPATH + " could not be loaded: " + e.getMessage());
+            return null;
+        }
+    }
 }
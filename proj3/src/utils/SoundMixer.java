@@ -0,0 +1,266 @@
+package utils;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The {@code SoundMixer} class mixes every sound of the game into a single
+ * {@link SourceDataLine} in software.
+ *
+ * Short effects are decoded once into 16-bit samples and mixed from memory, as many at a
+ * time as needed. Music is streamed from disk a small chunk at a time, so a long track never
+ * sits in memory as a whole, and a looping track is reopened inside the same chunk it ends
+ * in, which keeps the loop free of gaps.
+ *
+ * Everything is converted to 16-bit stereo at 44.1 kHz. Little-endian 16 and 24-bit files
+ * are read directly, and other layouts Java Sound can convert to 16-bit samples at 44.1 kHz,
+ * such as 8-bit or big-endian files, are converted on the way in. The mixer is not thread
+ * safe; it is only used from the audio thread in {@link Audio}.
+ */
+public class SoundMixer {
+    private static final AudioFormat OUTPUT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int CHUNK_FRAMES = 512;
+    private static final int LINE_BUFFER_FRAMES = CHUNK_FRAMES * 4;
+    private static final double MUSIC_GAIN = 0.6;
+
+    private final SourceDataLine line;
+    private final int[] mix = new int[CHUNK_FRAMES * 2];
+    private final short[] musicSamples = new short[CHUNK_FRAMES * 2];
+    private final byte[] output = new byte[CHUNK_FRAMES * 4];
+    private final ArrayList<Voice> voices = new ArrayList<>();
+    private MusicTrack music;
+
+    /**
+     * Constructs a new {@code SoundMixer} and opens the output line.
+     *
+     * @throws LineUnavailableException If the system has no line that can play the output format.
+     */
+    public SoundMixer() throws LineUnavailableException {
+        this.line = AudioSystem.getSourceDataLine(OUTPUT);
+        line.open(OUTPUT, LINE_BUFFER_FRAMES * OUTPUT.getFrameSize());
+        line.start();
+    }
+
+    /**
+     * Decodes a whole WAV file into interleaved 16-bit stereo samples.
+     *
+     * @param filePath The path of the WAV file.
+     * @return The decoded samples.
+     * @throws IOException If the file cannot be read or its format is not supported.
+     */
+    public static short[] decode(String filePath) throws IOException {
+        try (AudioInputStream stream = open(filePath)) {
+            byte[] data = stream.readAllBytes();
+            AudioFormat format = stream.getFormat();
+            int frames = data.length / format.getFrameSize();
+            short[] samples = new short[frames * 2];
+            convert(data, frames, format, samples);
+            return samples;
+        }
+    }
+
+    /**
+     * Starts playing a decoded effect on top of whatever is already playing.
+     *
+     * @param samples The samples returned by {@link #decode(String)}.
+     */
+    public void play(short[] samples) {
+        voices.add(new Voice(samples));
+    }
+
+    /**
+     * Starts streaming a music track, replacing the current one.
+     *
+     * @param filePath The path of the WAV file.
+     * @param loop     True to start over from the beginning whenever the track ends.
+     */
+    public void playMusic(String filePath, boolean loop) {
+        stopMusic();
+        try {
+            music = new MusicTrack(filePath, loop);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Stops the current music track, if any.
+     */
+    public void stopMusic() {
+        if (music != null) {
+            music.close();
+            music = null;
+        }
+    }
+
+    /**
+     * Checks whether anything is playing.
+     *
+     * @return True if there is music or at least one effect left to play.
+     */
+    public boolean isActive() {
+        return music != null || !voices.isEmpty();
+    }
+
+    /**
+     * Mixes the next chunk of every playing sound and writes it to the line. Blocks while the
+     * line's buffer is full, which is what paces the audio thread.
+     */
+    public void mixNextChunk() {
+        Arrays.fill(mix, 0);
+
+        if (music != null) {
+            int frames = music.read(musicSamples);
+            for (int i = 0; i < frames * 2; i++) {
+                mix[i] += (int) (musicSamples[i] * MUSIC_GAIN);
+            }
+            if (frames < CHUNK_FRAMES) {
+                stopMusic();
+            }
+        }
+
+        for (int v = voices.size() - 1; v >= 0; v--) {
+            Voice voice = voices.get(v);
+            int count = Math.min(mix.length, voice.samples.length - voice.position);
+            for (int i = 0; i < count; i++) {
+                mix[i] += voice.samples[voice.position + i];
+            }
+            voice.position += count;
+            if (voice.position >= voice.samples.length) {
+                voices.remove(v);
+            }
+        }
+
+        for (int i = 0; i < mix.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            output[2 * i] = (byte) sample;
+            output[2 * i + 1] = (byte) (sample >> 8);
+        }
+        line.write(output, 0, output.length);
+    }
+
+    /**
+     * Opens a WAV file as a stream of frames {@link #convert} can read, converting it with
+     * Java Sound if it is in another layout.
+     *
+     * @throws IOException If the file cannot be read or cannot be converted.
+     */
+    private static AudioInputStream open(String filePath) throws IOException {
+        AudioInputStream stream;
+        try {
+            stream = AudioSystem.getAudioInputStream(new File(filePath));
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException(filePath + " is not a supported audio file", e);
+        }
+        AudioFormat format = stream.getFormat();
+        if (isReadable(format)) {
+            return stream;
+        }
+        AudioFormat target = new AudioFormat(OUTPUT.getSampleRate(), 16, format.getChannels(),
+                true, false);
+        if (format.getChannels() <= 2 && AudioSystem.isConversionSupported(target, format)) {
+            return AudioSystem.getAudioInputStream(target, stream);
+        }
+        stream.close();
+        throw new IOException(filePath + " has an unsupported format " + format);
+    }
+
+    private static boolean isReadable(AudioFormat format) {
+        int bits = format.getSampleSizeInBits();
+        return format.getEncoding() == AudioFormat.Encoding.PCM_SIGNED && !format.isBigEndian()
+                && (bits == 16 || bits == 24) && format.getChannels() <= 2
+                && format.getSampleRate() == OUTPUT.getSampleRate();
+    }
+
+    /**
+     * Converts little-endian 16 or 24-bit mono or stereo frames into 16-bit stereo samples.
+     */
+    private static void convert(byte[] data, int frames, AudioFormat format, short[] out) {
+        int bytesPerSample = format.getSampleSizeInBits() / 8;
+        int channels = format.getChannels();
+        int frameSize = format.getFrameSize();
+        for (int f = 0; f < frames; f++) {
+            for (int c = 0; c < 2; c++) {
+                // Keep the two most significant bytes of each sample
+                int offset = f * frameSize + Math.min(c, channels - 1) * bytesPerSample + bytesPerSample - 2;
+                out[2 * f + c] = (short) ((data[offset] & 0xFF) | (data[offset + 1] << 8));
+            }
+        }
+    }
+
+    /**
+     * An effect that is being played, with its position in the samples.
+     */
+    private static class Voice {
+        private final short[] samples;
+        private int position;
+
+        Voice(short[] samples) {
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * A music track streamed from disk one chunk at a time.
+     */
+    private static class MusicTrack {
+        private final String filePath;
+        private final boolean loop;
+        private final byte[] buffer;
+        private AudioInputStream stream;
+        private AudioFormat format;
+
+        MusicTrack(String filePath, boolean loop) throws IOException {
+            this.filePath = filePath;
+            this.loop = loop;
+            this.stream = open(filePath);
+            this.format = stream.getFormat();
+            this.buffer = new byte[CHUNK_FRAMES * format.getFrameSize()];
+        }
+
+        /**
+         * Reads up to one chunk of frames, starting the track over when it ends if it loops.
+         *
+         * @return The number of frames read, less than a full chunk only if the track is over.
+         */
+        int read(short[] out) {
+            int frameSize = format.getFrameSize();
+            int filled = 0;
+            try {
+                while (filled < buffer.length) {
+                    int n = stream.read(buffer, filled, buffer.length - filled);
+                    if (n > 0) {
+                        filled += n;
+                    } else if (n < 0) {
+                        if (!loop) {
+                            break;
+                        }
+                        stream.close();
+                        stream = open(filePath);
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            int frames = filled / frameSize;
+            convert(buffer, frames, format, out);
+            return frames;
+        }
+
+        void close() {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+}
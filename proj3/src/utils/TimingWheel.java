@@ -0,0 +1,141 @@
+package utils;
+
+/**
+ * The {@code TimingWheel} class runs timed tasks on the game clock. It has no thread of its
+ * own: the game calls {@link #advance()} once per simulation tick, and the tasks that are due
+ * run right there, on the game thread.
+ *
+ * Timers are hashed by their deadline into a ring of buckets, each a doubly linked list.
+ * Scheduling and cancelling a timer are O(1), and a tick only looks at the timers of one
+ * bucket. A timer that is more than one turn of the wheel away simply stays in its bucket
+ * until the wheel comes around to its deadline.
+ */
+public class TimingWheel {
+    private final Timer[] buckets;
+    private final int mask;
+    private long tick;
+
+    /**
+     * Constructs a new {@code TimingWheel}.
+     *
+     * @param bucketCount The number of buckets, rounded up to a power of two.
+     */
+    public TimingWheel(int bucketCount) {
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.buckets = new Timer[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Schedules a task to run once.
+     *
+     * @param delayTicks The number of ticks from now, where 0 means the next tick.
+     * @param task       The task to run.
+     * @return The timer, which can be cancelled.
+     */
+    public Timer schedule(long delayTicks, Runnable task) {
+        return scheduleRepeating(delayTicks, 0, task);
+    }
+
+    /**
+     * Schedules a task to run over and over until it is cancelled.
+     *
+     * @param delayTicks  The number of ticks until the first run, where 0 means the next tick.
+     * @param periodTicks The number of ticks between runs, or 0 to run only once.
+     * @param task        The task to run.
+     * @return The timer, which can be cancelled.
+     */
+    public Timer scheduleRepeating(long delayTicks, long periodTicks, Runnable task) {
+        Timer timer = new Timer(task, periodTicks);
+        insert(timer, tick + Math.max(1, delayTicks));
+        return timer;
+    }
+
+    /**
+     * Advances the clock by one tick and runs every task that is due.
+     */
+    public void advance() {
+        tick++;
+        Timer timer = buckets[(int) (tick & mask)];
+        while (timer != null) {
+            // The next pointer survives even if a task cancels that timer
+            Timer next = timer.next;
+            if (timer.wheel != null && timer.deadline <= tick) {
+                unlink(timer);
+                if (timer.period > 0) {
+                    insert(timer, tick + timer.period);
+                }
+                timer.task.run();
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * Gets the number of ticks since the wheel was created.
+     *
+     * @return The current tick.
+     */
+    public long currentTick() {
+        return tick;
+    }
+
+    private void insert(Timer timer, long deadline) {
+        int bucket = (int) (deadline & mask);
+        timer.deadline = deadline;
+        timer.wheel = this;
+        timer.prev = null;
+        timer.next = buckets[bucket];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        buckets[bucket] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[(int) (timer.deadline & mask)] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.wheel = null;
+    }
+
+    /**
+     * A task scheduled on a {@link TimingWheel}.
+     */
+    public static class Timer {
+        private final Runnable task;
+        private final long period;
+        private TimingWheel wheel;
+        private long deadline;
+        private Timer prev;
+        private Timer next;
+
+        Timer(Runnable task, long period) {
+            this.task = task;
+            this.period = period;
+        }
+
+        /**
+         * Cancels the timer. Does nothing if it already ran or was cancelled.
+         */
+        public void cancel() {
+            if (wheel != null) {
+                wheel.unlink(this);
+            }
+        }
+
+        /**
+         * Checks whether the timer is still waiting to run.
+         *
+         * @return True if the timer is scheduled.
+         */
+        public boolean isScheduled() {
+            return wheel != null;
+        }
+    }
+}